@@ -0,0 +1,70 @@
+package warehouse.com.audit.starter.benchmark;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.beanutils.PropertyUtils;
+import org.apache.commons.lang3.reflect.MethodUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import warehouse.com.audit.starter.annotation.AuditableName;
+import warehouse.com.audit.starter.entity.valid.MethodTestEntity;
+import warehouse.com.audit.starter.entity.valid.TestEntity;
+import warehouse.com.audit.starter.metadata.AuditableMetadata;
+import warehouse.com.audit.starter.metadata.AuditableMetadataRegistry;
+
+/**
+ * Generated accessors against the commons-beanutils and {@link Method#invoke} reads they replace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessorBenchmark {
+
+  private TestEntity fieldEntity;
+  private MethodTestEntity methodEntity;
+  private AuditableMetadata fieldMetadata;
+  private AuditableMetadata methodMetadata;
+  private Method nameMethod;
+
+  @Setup
+  public void setUp() {
+    fieldEntity = TestEntity.builder().id("id").name("name").build();
+    methodEntity = MethodTestEntity.builder().id("id").name("name").build();
+    var registry = new AuditableMetadataRegistry();
+    fieldMetadata = registry.get(TestEntity.class);
+    methodMetadata = registry.get(MethodTestEntity.class);
+    nameMethod = MethodUtils.getMethodsListWithAnnotation(MethodTestEntity.class,
+        AuditableName.class).get(0);
+  }
+
+  @Benchmark
+  public Object fieldGenerated() {
+    return fieldMetadata.getAuditableId().get(fieldEntity);
+  }
+
+  @Benchmark
+  public Object fieldBeanUtils() throws Exception {
+    return PropertyUtils.getProperty(fieldEntity, "id");
+  }
+
+  @Benchmark
+  public Object methodGenerated() {
+    return methodMetadata.getAuditableName().get(methodEntity);
+  }
+
+  @Benchmark
+  public Object methodReflection() throws Exception {
+    return nameMethod.invoke(methodEntity);
+  }
+}
@@ -0,0 +1,99 @@
+package warehouse.com.audit.starter.benchmark;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import warehouse.com.audit.starter.aspect.AuditScope;
+
+/**
+ * Audit state of {@code @AuditEvent} calls: {@link AuditScope} against the inheritable thread
+ * local it replaces. The {@code call} benchmarks measure one scoped call on a pooled thread, the
+ * {@code thread} benchmarks start a thread of the given kind, as a request or task would, and run
+ * {@link #CALLS} scoped calls on it. Virtual threads require JDK 21.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuditScopeBenchmark {
+
+  private static final int CALLS = 100;
+
+  private final ThreadLocal<Boolean> inheritable =
+      InheritableThreadLocal.withInitial(() -> Boolean.FALSE);
+
+  @Param({"platform", "virtual"})
+  private String threads;
+
+  private ThreadFactory threadFactory;
+
+  @Setup
+  public void setUp() throws ReflectiveOperationException {
+    if ("virtual".equals(threads)) {
+      var builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      threadFactory = (ThreadFactory) Class.forName("java.lang.Thread$Builder")
+          .getMethod("factory").invoke(builder);
+    } else {
+      threadFactory = Thread::new;
+    }
+    inheritable.set(Boolean.TRUE);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public void auditScopeCall() {
+    AuditScope.run(true, AuditScope::isDefaultEventsDisabled);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public Boolean inheritableThreadLocalCall() {
+    inheritable.set(Boolean.TRUE);
+    try {
+      return inheritable.get();
+    } finally {
+      inheritable.remove();
+    }
+  }
+
+  @Benchmark
+  public void auditScopeThread() throws InterruptedException {
+    run(AuditScope.wrap(() -> {
+      for (int i = 0; i < CALLS; i++) {
+        AuditScope.run(i % 2 == 0, AuditScope::isDefaultEventsDisabled);
+      }
+    }));
+  }
+
+  @Benchmark
+  public void inheritableThreadLocalThread() throws InterruptedException {
+    run(() -> {
+      for (int i = 0; i < CALLS; i++) {
+        inheritable.set(i % 2 == 0);
+        try {
+          inheritable.get();
+        } finally {
+          inheritable.remove();
+        }
+      }
+    });
+  }
+
+  private void run(Runnable task) throws InterruptedException {
+    var thread = threadFactory.newThread(task);
+    thread.start();
+    thread.join();
+  }
+}
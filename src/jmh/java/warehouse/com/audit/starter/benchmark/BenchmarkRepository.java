@@ -0,0 +1,10 @@
+package warehouse.com.audit.starter.benchmark;
+
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Repository interface that {@link NoOpRepositoryFactory} creates Spring Data proxies of.
+ */
+public interface BenchmarkRepository extends CrudRepository<Object, String> {
+
+}
@@ -0,0 +1,38 @@
+package warehouse.com.audit.starter.benchmark;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.repository.CrudRepository;
+import warehouse.com.audit.starter.aspect.AuditAspect;
+import warehouse.com.audit.starter.service.AuditService;
+
+@UtilityClass
+public class BenchmarkSupport {
+
+  /**
+   * Audit service whose events are dropped instead of reaching {@code EventService}.
+   */
+  public static AuditService noOpAuditService() {
+    var auditService = new AuditService(null);
+    auditService.setPublisher(event -> {
+    });
+    return auditService;
+  }
+
+  /**
+   * Spring Data repository proxy over a {@link NoOpCrudRepository} without advice.
+   */
+  public static CrudRepository<Object, String> plainRepository() {
+    return new NoOpRepositoryFactory().getRepository(BenchmarkRepository.class);
+  }
+
+  /**
+   * Spring Data repository proxy over a {@link NoOpCrudRepository}, advised by
+   * {@link AuditAspect} through a Spring AOP proxy around it like a repository bean.
+   */
+  public static CrudRepository<Object, String> auditedRepository(AuditService auditService) {
+    var proxyFactory = new AspectJProxyFactory(plainRepository());
+    proxyFactory.addAspect(new AuditAspect(auditService));
+    return proxyFactory.getProxy();
+  }
+}
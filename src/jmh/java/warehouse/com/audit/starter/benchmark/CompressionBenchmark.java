@@ -0,0 +1,78 @@
+package warehouse.com.audit.starter.benchmark;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.audit.starter.serializer.AuditEventSerializer;
+import warehouse.com.audit.starter.serializer.BinaryAuditEventSerializer;
+import warehouse.com.audit.starter.serializer.CompressingAuditEventSerializer;
+import warehouse.com.audit.starter.serializer.CompressionCodec;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+/**
+ * Serialization throughput of large multi-entity events per compression codec. The payload size
+ * of each codec is printed on setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+
+  @Param({"1000", "10000"})
+  public int entities;
+
+  @Param({"NONE", "LZ4", "ZSTD"})
+  public CompressionCodec codec;
+
+  private AuditEventSerializer serializer;
+  private AuditEvent event;
+  private byte[] payload;
+
+  @Setup
+  public void setUp() {
+    var properties = new AuditProperties.Compression();
+    properties.setCodec(codec);
+    serializer = new CompressingAuditEventSerializer(new BinaryAuditEventSerializer(), properties);
+    event = AuditEvent.builder()
+        .entityType("warehouse-item")
+        .action("update")
+        .initiatorId("3f2504e0-4f89-11d3-9a0c-0305e82c3301")
+        .timestamp(new Date())
+        .entities(IntStream.range(0, entities)
+            .mapToObj(i -> AuditEvent.Entity.builder()
+                .id(String.format("64f1a2b3c4d5e6f7%08x", i * 7))
+                .name("pallet " + (i % 50) + " of zone " + (i % 7))
+                .build())
+            .collect(Collectors.toCollection(HashSet::new)))
+        .build();
+    payload = serializer.serialize(event);
+    System.out.printf("%n%s, %d entities: %d bytes%n", codec, entities, payload.length);
+  }
+
+  @Benchmark
+  public byte[] serialize() {
+    return serializer.serialize(event);
+  }
+
+  @Benchmark
+  public AuditEvent deserialize() {
+    return serializer.deserialize(payload);
+  }
+}
@@ -0,0 +1,70 @@
+package warehouse.com.audit.starter.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import warehouse.com.audit.starter.diff.EntityDiffer;
+
+/**
+ * Snapshot and comparison of an entity with 62 compared fields.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiffBenchmark {
+
+  private EntityDiffer differ;
+  private WideEntity entity;
+  private Object[] unchanged;
+  private Object[] changed;
+
+  @Setup
+  public void setUp() {
+    differ = new EntityDiffer(WideEntity.class);
+    entity = new WideEntity();
+    entity.setId("id");
+    entity.setName("name");
+    entity.setText1("text");
+    entity.setNumber1(1);
+    entity.setCount1(1);
+    entity.setDate1(new Date(0));
+    entity.setList1(new ArrayList<>(List.of("a", "b")));
+    unchanged = differ.snapshot(entity);
+    entity.setText1("other");
+    entity.setNumber1(2);
+    entity.setCount1(2);
+    changed = differ.snapshot(entity);
+    entity.setText1("text");
+    entity.setNumber1(1);
+    entity.setCount1(1);
+  }
+
+  @Benchmark
+  public Object[] snapshot() {
+    return differ.snapshot(entity);
+  }
+
+  @Benchmark
+  public List<String> unchanged() {
+    return differ.changes(unchanged, entity);
+  }
+
+  @Benchmark
+  public List<String> threeChanged() {
+    return differ.changes(changed, entity);
+  }
+}
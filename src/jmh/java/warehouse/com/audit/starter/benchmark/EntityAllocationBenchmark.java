@@ -0,0 +1,53 @@
+package warehouse.com.audit.starter.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import warehouse.com.audit.starter.entity.valid.TestEntity;
+import warehouse.com.audit.starter.service.AuditService;
+
+/**
+ * Cost per entity of a collection event, run with {@code -prof gc} so
+ * {@code gc.alloc.rate.norm} reads as bytes allocated per entity. A warmed-up C2 extraction of
+ * string ids allocates about 64 B per entity: the entity, its hash set node and table slots. The
+ * exact number depends on escape analysis of the JIT, so {@code AuditServiceTest} only asserts a
+ * loose bound and the number itself is tracked here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityAllocationBenchmark {
+
+  private static final int ENTITIES = 1_000;
+
+  private AuditService auditService;
+  private List<TestEntity> entities;
+
+  @Setup
+  public void setUp() {
+    auditService = BenchmarkSupport.noOpAuditService();
+    entities = IntStream.range(0, ENTITIES)
+        .mapToObj(i -> TestEntity.builder().id(String.valueOf(i)).name("name-" + i).build())
+        .toList();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ENTITIES)
+  public void sendAuditEvent() {
+    auditService.sendAuditEvent(entities, "updated");
+  }
+}
@@ -0,0 +1,54 @@
+package warehouse.com.audit.starter.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import warehouse.com.audit.starter.entity.valid.MethodTestEntity;
+import warehouse.com.audit.starter.entity.valid.TestEntity;
+import warehouse.com.audit.starter.service.AuditService;
+
+/**
+ * Entity extraction of a field annotated name against a method annotated one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityExtractionBenchmark {
+
+  private AuditService auditService;
+  private TestEntity fieldEntity;
+  private MethodTestEntity methodEntity;
+
+  @Setup
+  public void setUp() {
+    auditService = BenchmarkSupport.noOpAuditService();
+    fieldEntity = TestEntity.builder().id("id").name("name").build();
+    methodEntity = MethodTestEntity.builder().id("id").name("name").build();
+  }
+
+  @Benchmark
+  public void fieldExtraction(Blackhole blackhole) {
+    var metadata = auditService.getMetadata(fieldEntity);
+    blackhole.consume(metadata.getId(fieldEntity));
+    blackhole.consume(metadata.getName(fieldEntity));
+  }
+
+  @Benchmark
+  public void methodExtraction(Blackhole blackhole) {
+    var metadata = auditService.getMetadata(methodEntity);
+    blackhole.consume(metadata.getId(methodEntity));
+    blackhole.consume(metadata.getName(methodEntity));
+  }
+}
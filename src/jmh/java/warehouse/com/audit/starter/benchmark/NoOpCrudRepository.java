@@ -0,0 +1,66 @@
+package warehouse.com.audit.starter.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Repository that stores nothing, so benchmarks measure only the advice around it.
+ */
+public class NoOpCrudRepository implements CrudRepository<Object, String> {
+
+  @Override
+  public <S> S save(S entity) {
+    return entity;
+  }
+
+  @Override
+  public <S> Iterable<S> saveAll(Iterable<S> entities) {
+    return entities;
+  }
+
+  @Override
+  public Optional<Object> findById(String id) {
+    return Optional.empty();
+  }
+
+  @Override
+  public boolean existsById(String id) {
+    return false;
+  }
+
+  @Override
+  public Iterable<Object> findAll() {
+    return List.of();
+  }
+
+  @Override
+  public Iterable<Object> findAllById(Iterable<String> ids) {
+    return List.of();
+  }
+
+  @Override
+  public long count() {
+    return 0;
+  }
+
+  @Override
+  public void deleteById(String id) {
+  }
+
+  @Override
+  public void delete(Object entity) {
+  }
+
+  @Override
+  public void deleteAllById(Iterable<? extends String> ids) {
+  }
+
+  @Override
+  public void deleteAll(Iterable<?> entities) {
+  }
+
+  @Override
+  public void deleteAll() {
+  }
+}
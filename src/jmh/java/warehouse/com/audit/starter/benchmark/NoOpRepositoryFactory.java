@@ -0,0 +1,40 @@
+package warehouse.com.audit.starter.benchmark;
+
+import org.springframework.data.repository.core.EntityInformation;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.core.support.AbstractEntityInformation;
+import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+
+/**
+ * Spring Data repository factory backed by a {@link NoOpCrudRepository}, so benchmarks call
+ * repositories through the same proxy as applications without a data store.
+ */
+public class NoOpRepositoryFactory extends RepositoryFactorySupport {
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T, I> EntityInformation<T, I> getEntityInformation(Class<T> domainClass) {
+    return new AbstractEntityInformation<>(domainClass) {
+      @Override
+      public I getId(T entity) {
+        return null;
+      }
+
+      @Override
+      public Class<I> getIdType() {
+        return (Class<I>) String.class;
+      }
+    };
+  }
+
+  @Override
+  protected Object getTargetRepository(RepositoryInformation metadata) {
+    return new NoOpCrudRepository();
+  }
+
+  @Override
+  protected Class<?> getRepositoryBaseClass(RepositoryMetadata metadata) {
+    return NoOpCrudRepository.class;
+  }
+}
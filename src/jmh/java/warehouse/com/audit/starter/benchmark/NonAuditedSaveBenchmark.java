@@ -0,0 +1,62 @@
+package warehouse.com.audit.starter.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Overhead of the audit advice on saves of entities that are not audited.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NonAuditedSaveBenchmark {
+
+  private CrudRepository<Object, String> plain;
+  private CrudRepository<Object, String> audited;
+  private Object entity;
+  private List<Object> entities;
+
+  @Setup
+  public void setUp() {
+    plain = new NoOpCrudRepository();
+    audited = BenchmarkSupport.auditedRepository(BenchmarkSupport.noOpAuditService());
+    entity = new PlainEntity("id");
+    entities = IntStream.range(0, 1_000)
+        .<Object>mapToObj(i -> new PlainEntity(String.valueOf(i)))
+        .toList();
+  }
+
+  @Benchmark
+  public Object saveWithoutAspect() {
+    return plain.save(entity);
+  }
+
+  @Benchmark
+  public Object saveThroughAspect() {
+    return audited.save(entity);
+  }
+
+  @Benchmark
+  public Object saveAllThroughAspect() {
+    return audited.saveAll(entities);
+  }
+
+  public record PlainEntity(String id) {
+
+  }
+}
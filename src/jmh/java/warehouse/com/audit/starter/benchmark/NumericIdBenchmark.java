@@ -0,0 +1,55 @@
+package warehouse.com.audit.starter.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.audit.starter.service.AuditService;
+
+/**
+ * Cost per entity of one event of 100k entities with a numeric id, run with {@code -prof gc} so
+ * {@code gc.alloc.rate.norm} reads as bytes allocated per entity.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumericIdBenchmark {
+
+  private static final int ENTITIES = 100_000;
+
+  private AuditService auditService;
+  private List<NumericIdEntity> entities;
+
+  @Setup
+  public void setUp() {
+    auditService = BenchmarkSupport.noOpAuditService();
+    var properties = new AuditProperties();
+    properties.getChunk().setMaxEntities(ENTITIES);
+    properties.getChunk().setMaxSize(DataSize.ofGigabytes(1));
+    auditService.setProperties(properties);
+    entities = LongStream.range(0, ENTITIES)
+        .mapToObj(i -> new NumericIdEntity(1_000_000 + i, "name-" + i, null))
+        .toList();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ENTITIES)
+  public void sendAuditEvent() {
+    auditService.sendAuditEvent(entities, "updated");
+  }
+}
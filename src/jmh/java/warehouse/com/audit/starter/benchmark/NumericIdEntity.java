@@ -0,0 +1,27 @@
+package warehouse.com.audit.starter.benchmark;
+
+import java.util.Date;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.LastModifiedDate;
+import warehouse.com.audit.starter.annotation.AuditableEntity;
+import warehouse.com.audit.starter.annotation.AuditableId;
+import warehouse.com.audit.starter.annotation.AuditableName;
+
+/**
+ * Entity with a primitive id for {@link NumericIdBenchmark}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@AuditableEntity(entityType = "numeric")
+public class NumericIdEntity {
+
+  @AuditableId
+  private long id;
+  @AuditableName
+  private String name;
+  @LastModifiedDate
+  private Date lastModifiedDate;
+}
@@ -0,0 +1,78 @@
+package warehouse.com.audit.starter.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.audit.starter.entity.valid.TestEntity;
+import warehouse.com.audit.starter.service.AuditService;
+import warehouse.com.audit.starter.service.ExtractionPool;
+
+/**
+ * Sequential against parallel extraction of one collection event. The parallel mode pays off
+ * from the size where its score drops below the sequential one, which depends on the number of
+ * cores, compare {@code -p parallelism=...} runs before tuning
+ * {@code application.audit.parallel.threshold}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelExtractionBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  private int size;
+
+  @Param({"false", "true"})
+  private boolean parallel;
+
+  @Param({"0"})
+  private int parallelism;
+
+  private AuditService auditService;
+  private ExtractionPool extractionPool;
+  private List<TestEntity> entities;
+
+  @Setup
+  public void setUp() {
+    auditService = BenchmarkSupport.noOpAuditService();
+    if (parallel) {
+      var properties = new AuditProperties();
+      properties.getParallel().setThreshold(1);
+      if (parallelism > 0) {
+        properties.getParallel().setParallelism(parallelism);
+      }
+      extractionPool = new ExtractionPool(properties.getParallel());
+      auditService.setExtractionPool(extractionPool);
+    }
+    entities = IntStream.range(0, size)
+        .mapToObj(i -> TestEntity.builder().id(String.valueOf(i)).name("name-" + i).build())
+        .toList();
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    if (extractionPool != null) {
+      extractionPool.destroy();
+    }
+  }
+
+  @Benchmark
+  public void sendAuditEvent() {
+    auditService.sendAuditEvent(entities, "updated");
+  }
+}
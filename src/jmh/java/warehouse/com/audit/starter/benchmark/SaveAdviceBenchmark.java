@@ -0,0 +1,51 @@
+package warehouse.com.audit.starter.benchmark;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.repository.CrudRepository;
+import warehouse.com.audit.starter.entity.valid.MethodTestEntity;
+import warehouse.com.audit.starter.entity.valid.TestEntity;
+
+/**
+ * {@code AuditAspect.logSaveEvent} through a Spring AOP proxy for audited entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveAdviceBenchmark {
+
+  private CrudRepository<Object, String> repository;
+  private TestEntity created;
+  private MethodTestEntity updated;
+
+  @Setup
+  public void setUp() {
+    repository = BenchmarkSupport.auditedRepository(BenchmarkSupport.noOpAuditService());
+    created = TestEntity.builder().id("id").name("name").build();
+    updated = MethodTestEntity.builder().id("id").name("name").lastModifiedDate(new Date())
+        .build();
+  }
+
+  @Benchmark
+  public Object saveCreated() {
+    return repository.save(created);
+  }
+
+  @Benchmark
+  public Object saveUpdated() {
+    return repository.save(updated);
+  }
+}
@@ -0,0 +1,221 @@
+package warehouse.com.audit.starter.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.repository.CrudRepository;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.audit.starter.entity.valid.MethodTestEntity;
+import warehouse.com.audit.starter.entity.valid.TestEntity;
+import warehouse.com.audit.starter.metrics.AuditMetrics;
+import warehouse.com.audit.starter.publisher.AsyncAuditEventPublisher;
+import warehouse.com.audit.starter.publisher.InMemoryEventService;
+import warehouse.com.audit.starter.service.AuditService;
+
+/**
+ * Open-loop load test of saves through a Spring Data repository proxy advised by
+ * {@code AuditAspect}, publishing to an {@link InMemoryEventService}. Saves are started at the
+ * target rate whether or not the previous ones have finished, and their latency is taken from the
+ * intended start, so a stalled save shows up in the percentiles of the saves queued behind it.
+ * <p> Every iteration drives the load for {@code duration} seconds from {@code loadThreads}
+ * threads of its own and reports the save latency percentiles, errors and published events as
+ * auxiliary counters, {@code audited=false} is the baseline without auditing. Further parameters
+ * are {@code rate} saves per second, {@code batch} entities per save ({@code saveAll} above one),
+ * {@code latency} of a publish in microseconds, {@code failureRate} of publishes and
+ * {@code async=true} to publish through an {@link AsyncAuditEventPublisher}. </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 1)
+@Threads(1)
+@Fork(1)
+public class SaveLoadBenchmark {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+  private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+  private static final int ENTITIES = 1_024;
+
+  @Param("10000")
+  public long rate;
+
+  @Param("10")
+  public long duration;
+
+  @Param("1")
+  public int loadThreads;
+
+  @Param("1")
+  public int batch;
+
+  @Param("0")
+  public long latency;
+
+  @Param("0")
+  public double failureRate;
+
+  @Param("false")
+  public boolean async;
+
+  @Param({"false", "true"})
+  public boolean audited;
+
+  private final List<Object> created = new ArrayList<>();
+  private final List<Object> updated = new ArrayList<>();
+  private CrudRepository<Object, String> repository;
+  private InMemoryEventService eventService;
+  private AsyncAuditEventPublisher asyncPublisher;
+
+  @Setup
+  public void setUp() {
+    for (int i = 0; i < ENTITIES; i++) {
+      created.add(TestEntity.builder().id(String.valueOf(i)).name("name-" + i).build());
+      updated.add(MethodTestEntity.builder().id(String.valueOf(i)).name("name-" + i)
+          .lastModifiedDate(new Date()).build());
+    }
+    eventService = new InMemoryEventService(ENTITIES,
+        Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(latency)), failureRate);
+    if (!audited) {
+      repository = BenchmarkSupport.plainRepository();
+      return;
+    }
+    var auditService = new AuditService(eventService);
+    if (async) {
+      asyncPublisher = new AsyncAuditEventPublisher(eventService::publish,
+          new AuditProperties().getAsync(), AuditMetrics.NOOP);
+      auditService.setPublisher(asyncPublisher);
+    }
+    repository = BenchmarkSupport.auditedRepository(auditService);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    if (asyncPublisher != null) {
+      asyncPublisher.destroy();
+    }
+  }
+
+  @Benchmark
+  public void saveAtRate(LoadResult result) throws Exception {
+    var published = eventService.getPublishedCount();
+    var interval = SECOND / rate;
+    var start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+    var end = start + duration * SECOND;
+    var errors = new AtomicLong();
+    var workers = new ArrayList<CompletableFuture<long[]>>();
+    for (int thread = 0; thread < loadThreads; thread++) {
+      var first = start + thread * interval;
+      workers.add(CompletableFuture.supplyAsync(
+          () -> drive(first, end, interval * loadThreads, errors),
+          runnable -> new Thread(runnable, "save-load-" + workers.size()).start()));
+    }
+    var latencies = new long[0];
+    for (CompletableFuture<long[]> worker : workers) {
+      var part = worker.get();
+      var offset = latencies.length;
+      latencies = Arrays.copyOf(latencies, offset + part.length);
+      System.arraycopy(part, 0, latencies, offset, part.length);
+    }
+    result.record(latencies, errors.get(), eventService.getPublishedCount() - published);
+  }
+
+  private long[] drive(long first, long end, long interval, AtomicLong errors) {
+    var latencies = new long[(int) ((end - first) / interval) + 1];
+    var count = 0;
+    for (long intended = first; intended < end; intended += interval) {
+      await(intended);
+      try {
+        save(count);
+      } catch (RuntimeException e) {
+        errors.incrementAndGet();
+      }
+      latencies[count++] = System.nanoTime() - intended;
+    }
+    return Arrays.copyOf(latencies, count);
+  }
+
+  /**
+   * Saves new and existing entities in turn.
+   */
+  private void save(int sequence) {
+    var entities = sequence % 2 == 0 ? created : updated;
+    var from = sequence * batch % (ENTITIES - batch + 1);
+    if (batch == 1) {
+      repository.save(entities.get(from));
+    } else {
+      repository.saveAll(entities.subList(from, from + batch));
+    }
+  }
+
+  private static void await(long intended) {
+    for (long left; (left = intended - System.nanoTime()) > 0; ) {
+      if (left > SPIN_NANOS) {
+        LockSupport.parkNanos(left - SPIN_NANOS);
+      } else {
+        Thread.onSpinWait();
+      }
+    }
+  }
+
+  /**
+   * Outcome of the saves of one iteration, reported by JMH next to the iteration time.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class LoadResult {
+
+    public long saves;
+    public long errors;
+    public long events;
+    public double p50Micros;
+    public double p99Micros;
+    public double p999Micros;
+    public double maxMicros;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      record(new long[0], 0, 0);
+    }
+
+    private void record(long[] latencies, long errors, long events) {
+      Arrays.sort(latencies);
+      this.saves = latencies.length;
+      this.errors = errors;
+      this.events = events;
+      this.p50Micros = micros(percentile(latencies, 0.5));
+      this.p99Micros = micros(percentile(latencies, 0.99));
+      this.p999Micros = micros(percentile(latencies, 0.999));
+      this.maxMicros = micros(latencies.length == 0 ? 0 : latencies[latencies.length - 1]);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+      return sorted.length == 0 ? 0 : sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    private static double micros(long nanos) {
+      return nanos / 1_000.0;
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package warehouse.com.audit.starter.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import warehouse.com.audit.starter.entity.valid.TestEntity;
+import warehouse.com.audit.starter.service.AuditService;
+
+/**
+ * Cost of building audit events for a single entity and for collections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SendAuditEventBenchmark {
+
+  @Param({"1", "10", "1000", "100000"})
+  private int size;
+
+  private AuditService auditService;
+  private Object auditable;
+
+  @Setup
+  public void setUp() {
+    auditService = BenchmarkSupport.noOpAuditService();
+    List<TestEntity> entities = IntStream.range(0, size)
+        .mapToObj(i -> TestEntity.builder().id(String.valueOf(i)).name("name-" + i).build())
+        .toList();
+    auditable = size == 1 ? entities.get(0) : entities;
+  }
+
+  @Benchmark
+  public void sendAuditEvent() {
+    auditService.sendAuditEvent(auditable, "updated");
+  }
+}
@@ -0,0 +1,89 @@
+package warehouse.com.audit.starter.benchmark;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import warehouse.com.audit.starter.serializer.BinaryAuditEventSerializer;
+import warehouse.com.audit.starter.serializer.JsonAuditEventSerializer;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+/**
+ * Encode and decode cost of the binary and JSON audit event formats for a batch of events. Bytes
+ * per event of both formats are printed on setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+  private static final int EVENTS = 100;
+
+  @Param({"1", "100"})
+  public int entities;
+
+  private final BinaryAuditEventSerializer binary = new BinaryAuditEventSerializer();
+  private final JsonAuditEventSerializer json = new JsonAuditEventSerializer();
+  private List<AuditEvent> events;
+  private byte[] binaryPayload;
+  private byte[] jsonPayload;
+
+  @Setup
+  public void setUp() {
+    var timestamp = System.currentTimeMillis();
+    events = IntStream.range(0, EVENTS)
+        .mapToObj(i -> AuditEvent.builder()
+            .entityType("warehouse-item")
+            .action(i % 3 == 0 ? "create" : "update")
+            .initiatorId("3f2504e0-4f89-11d3-9a0c-0305e82c3301")
+            .timestamp(new Date(timestamp + i))
+            .entities(IntStream.range(0, entities)
+                .mapToObj(j -> AuditEvent.Entity.builder()
+                    .id(String.valueOf(1_000_000L + i * entities + j))
+                    .name("item " + j)
+                    .build())
+                .collect(Collectors.toCollection(HashSet::new)))
+            .build())
+        .toList();
+    binaryPayload = binary.serializeBatch(events);
+    jsonPayload = json.serializeBatch(events);
+    System.out.printf("%n%d entities: binary %d bytes/event, json %d bytes/event%n", entities,
+        binaryPayload.length / EVENTS, jsonPayload.length / EVENTS);
+  }
+
+  @Benchmark
+  public byte[] encodeBinary() {
+    return binary.serializeBatch(events);
+  }
+
+  @Benchmark
+  public byte[] encodeJson() {
+    return json.serializeBatch(events);
+  }
+
+  @Benchmark
+  public List<AuditEvent> decodeBinary() {
+    return binary.deserializeBatch(binaryPayload);
+  }
+
+  @Benchmark
+  public List<AuditEvent> decodeJson() {
+    return json.deserializeBatch(jsonPayload);
+  }
+}
@@ -0,0 +1,83 @@
+package warehouse.com.audit.starter.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.audit.starter.metrics.AuditMetrics;
+import warehouse.com.audit.starter.publisher.SpoolingAuditEventPublisher;
+import warehouse.com.audit.starter.serializer.BinaryAuditEventSerializer;
+import warehouse.com.audit.starter.spool.AuditEventSpool;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+/**
+ * Local append cost of the audit spool, with and without event encoding. The forwarder drains to a
+ * no-op delegate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpoolAppendBenchmark {
+
+  private Path directory;
+  private SpoolingAuditEventPublisher publisher;
+  private AuditEventSpool spool;
+  private AuditEvent event;
+  private byte[] record;
+
+  @Setup
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("audit-spool-benchmark");
+    var serializer = new BinaryAuditEventSerializer();
+    var properties = new AuditProperties.Spool();
+    properties.setDirectory(directory.resolve("publisher"));
+    publisher = new SpoolingAuditEventPublisher(event -> {
+    }, properties, serializer, AuditMetrics.NOOP);
+    spool = new AuditEventSpool(directory.resolve("spool"), 64 * 1024 * 1024, false);
+    event = AuditEvent.builder()
+        .entityType("test")
+        .action("update")
+        .initiatorId("initiator")
+        .timestamp(new Date())
+        .entities(Set.of(AuditEvent.Entity.builder().id("id").name("name").build()))
+        .build();
+    record = serializer.serialize(event);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    publisher.destroy();
+    spool.close();
+    FileSystemUtils.deleteRecursively(directory);
+  }
+
+  @Benchmark
+  public void publish() {
+    publisher.publish(event);
+  }
+
+  @Benchmark
+  public void append() {
+    spool.append(record);
+    spool.peek();
+    spool.commit();
+  }
+}
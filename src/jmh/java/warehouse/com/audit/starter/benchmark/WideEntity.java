@@ -0,0 +1,84 @@
+package warehouse.com.audit.starter.benchmark;
+
+import java.util.Date;
+import java.util.List;
+import lombok.Data;
+import org.springframework.data.annotation.LastModifiedDate;
+import warehouse.com.audit.starter.annotation.AuditableEntity;
+import warehouse.com.audit.starter.annotation.AuditableId;
+import warehouse.com.audit.starter.annotation.AuditableName;
+
+/**
+ * Entity with 62 compared fields for {@link DiffBenchmark}.
+ */
+@Data
+@AuditableEntity(entityType = "wide", captureChanges = true)
+public class WideEntity {
+
+  @AuditableId
+  private String id;
+  @AuditableName
+  private String name;
+  @LastModifiedDate
+  private Date lastModifiedDate;
+  private String text1;
+  private String text2;
+  private String text3;
+  private String text4;
+  private String text5;
+  private String text6;
+  private String text7;
+  private String text8;
+  private String text9;
+  private String text10;
+  private String text11;
+  private String text12;
+  private String text13;
+  private String text14;
+  private String text15;
+  private String text16;
+  private String text17;
+  private String text18;
+  private String text19;
+  private String text20;
+  private long number1;
+  private long number2;
+  private long number3;
+  private long number4;
+  private long number5;
+  private long number6;
+  private long number7;
+  private long number8;
+  private long number9;
+  private long number10;
+  private long number11;
+  private long number12;
+  private long number13;
+  private long number14;
+  private long number15;
+  private long number16;
+  private long number17;
+  private long number18;
+  private long number19;
+  private long number20;
+  private Integer count1;
+  private Integer count2;
+  private Integer count3;
+  private Integer count4;
+  private Integer count5;
+  private Integer count6;
+  private Integer count7;
+  private Integer count8;
+  private Integer count9;
+  private Integer count10;
+  private Date date1;
+  private Date date2;
+  private Date date3;
+  private Date date4;
+  private Date date5;
+  private List<String> list1;
+  private List<String> list2;
+  private List<String> list3;
+  private List<String> list4;
+  private List<String> list5;
+}
@@ -9,6 +9,11 @@ import java.lang.annotation.Target;
  * Annotation is used on the method level. The method has to have an entity marked with {@code AuditableEntity}
  * as an argument or return it.
  * <p>  It is used to log activity events with a custom action. </p>
+ * <p> A returned {@link java.util.stream.Stream}, {@link java.util.Iterator} or {@link Iterable}
+ * that is not a collection is audited while the caller consumes it. A chunk is sent once it is
+ * full, the last chunk only when the elements are exhausted or the stream is closed. Entities of
+ * an iterator the caller stops reading, or of a stream that is short-circuited and not closed, are
+ * therefore not sent. Only the first iteration of a returned {@link Iterable} is audited. </p>
  */
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
@@ -9,7 +9,10 @@ import java.lang.annotation.Target;
  * If the annotation {@code @AuditableEntity} is present on the declaration
  * of a class then entity is audited.
  * {@link AuditableId}, {@link AuditableName} and {@link org.springframework.data.annotation.LastModifiedDate}
- * are required to build proper audit event
+ * are required to build proper audit event, entities implementing
+ * {@link org.springframework.data.domain.Persistable} need no {@code LastModifiedDate}.
+ * Enablement, action names and publish mode can be overridden at runtime by the rules of
+ * {@code application.audit.policies}.
  */
 
 @Retention(RetentionPolicy.RUNTIME)
@@ -26,4 +29,19 @@ public @interface AuditableEntity {
   String deleteEvent() default "deleted";
 
   String updateEvent() default "updated";
+
+  /**
+   * Window in milliseconds in which consecutive events with the same action for the same entity are
+   * merged into one event. Coalescing is disabled by default, see
+   * {@code application.audit.coalesce.windows} to override it per entity type.
+   */
+  long coalesceWindowMillis() default 0;
+
+  /**
+   * Add the names of changed fields to update events. Requires
+   * {@code application.audit.capture-changes}, fields are compared with a snapshot taken when the
+   * entity was loaded through a repository query method ({@code find}, {@code get}, {@code read},
+   * {@code query}, {@code search} or {@code stream} prefix) or last saved.
+   */
+  boolean captureChanges() default false;
 }
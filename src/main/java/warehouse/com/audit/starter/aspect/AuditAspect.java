@@ -1,23 +1,23 @@
 package warehouse.com.audit.starter.aspect;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
-import org.apache.commons.beanutils.PropertyUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.After;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.springframework.data.annotation.Id;
-import org.springframework.data.annotation.LastModifiedDate;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
 import warehouse.com.audit.starter.annotation.AuditEvent;
+import warehouse.com.audit.starter.diff.ChangeTracker;
+import warehouse.com.audit.starter.metrics.AuditMetrics;
 import warehouse.com.audit.starter.service.AuditService;
 
 @Aspect
@@ -25,12 +25,39 @@ import warehouse.com.audit.starter.service.AuditService;
 public class AuditAspect {
 
   private final AuditService auditService;
+  private AuditableRepositoryIndex repositoryIndex;
+  private AuditMetrics metrics = AuditMetrics.NOOP;
+  private ChangeTracker changeTracker;
+
+  /**
+   * Lets saves of repositories with not audited domain types skip the audit advice.
+   *
+   * @param repositoryIndex Index of audited repositories
+   */
+  @Autowired(required = false)
+  public void setRepositoryIndex(AuditableRepositoryIndex repositoryIndex) {
+    this.repositoryIndex = repositoryIndex;
+  }
+
+  @Autowired(required = false)
+  public void setMetrics(AuditMetrics metrics) {
+    this.metrics = metrics;
+  }
 
-  private ThreadLocal<Boolean> disableDefaultEvents = InheritableThreadLocal.withInitial(() -> Boolean.FALSE);
+  /**
+   * Adds changed fields to update events of entities with
+   * {@link warehouse.com.audit.starter.annotation.AuditableEntity#captureChanges()}.
+   *
+   * @param changeTracker Snapshots of loaded and saved entities
+   */
+  @Autowired(required = false)
+  public void setChangeTracker(ChangeTracker changeTracker) {
+    this.changeTracker = changeTracker;
+  }
 
   @Around(value = "@annotation(auditEvent)", argNames = "pjp,auditEvent")
   public Object logAuditEvent(ProceedingJoinPoint pjp, AuditEvent auditEvent) throws Throwable {
-    disableDefaultEvents.set(auditEvent.disableDefaultEvents());
+    var previous = AuditScope.enter(auditEvent.disableDefaultEvents());
     try {
       if (StringUtils.isEmpty(auditEvent.action())) {
         return pjp.proceed();
@@ -42,7 +69,7 @@ public class AuditAspect {
       }
       return proceedWithReturnObject(pjp, auditEvent);
     } finally {
-      disableDefaultEvents.remove();
+      AuditScope.restore(previous);
     }
   }
 
@@ -52,17 +79,35 @@ public class AuditAspect {
       " && args(auditEntity)", argNames = "pjp,auditEntity")
   public Object logSaveEvent(ProceedingJoinPoint pjp, Object auditEntity) throws Throwable {
 
-    if (disableDefaultEvents.get()) {
+    if (AuditScope.isDefaultEventsDisabled() || isNotAudited(pjp, auditEntity)) {
       return pjp.proceed();
     }
 
+    var start = System.nanoTime();
     var auditables = auditService.getAuditables(auditEntity);
     if (auditables.isPresent()) {
-      String action = isNew(auditables.get())
-          ? auditService.getAnnotation(auditables.get().get(0)).createEvent()
-          : auditService.getAnnotation(auditables.get().get(0)).updateEvent();
+      var annotation = auditService.getAnnotation(auditables.get().get(0));
+      var saves = Saves.of(auditables.get(), auditService);
+      var tracked = changeTracker != null
+          && changeTracker.isTracked(auditables.get().get(0).getClass());
+      var changes = tracked && !saves.updated().isEmpty()
+          ? changeTracker.changes(saves.updated())
+          : null;
+      var beforeProceed = System.nanoTime();
       var proceed = pjp.proceed();
-      auditService.sendAuditEvent(auditables.get(), action);
+      var afterProceed = System.nanoTime();
+      if (!saves.created().isEmpty()) {
+        auditService.sendAuditEvent(saves.created(), annotation.createEvent());
+      }
+      if (changes != null) {
+        auditService.sendChangeEvent(saves.updated(), annotation.updateEvent(), changes);
+      } else if (!saves.updated().isEmpty()) {
+        auditService.sendAuditEvent(saves.updated(), annotation.updateEvent());
+      }
+      if (tracked) {
+        changeTracker.snapshot(proceed);
+      }
+      metrics.recordSaveAdvice(beforeProceed - start + System.nanoTime() - afterProceed);
       return proceed;
     }
 
@@ -74,40 +119,63 @@ public class AuditAspect {
       " && args(auditEntity)")
   public void logDeleteEvent(Object auditEntity) {
 
-    if (!disableDefaultEvents.get()) {
+    if (!AuditScope.isDefaultEventsDisabled() && auditService.isAuditable(auditEntity)) {
+      var start = System.nanoTime();
       Optional<List<Object>> auditables = auditService.getAuditables(auditEntity);
       auditables.ifPresent(entities -> {
         var action = auditService.getAnnotation(entities.get(0)).deleteEvent();
         auditService.sendAuditEvent(entities, action);
       });
+      metrics.recordDeleteAdvice(System.nanoTime() - start);
     }
   }
 
-  private boolean isNew(List<Object> auditEntities) {
-
-    return auditEntities
-        .stream()
-        .findFirst()
-        .map(auditable -> hasAnyNullFieldsAnnotatedBy(auditable, List.of(LastModifiedDate.class, Id.class)))
-        .orElse(false);
-  }
-
-  private boolean hasAnyNullFieldsAnnotatedBy(Object object, List<Class<? extends Annotation>> annotations) {
-    return annotations.stream()
-        .map(annotation -> getField(object, annotation))
-        .filter(Objects::nonNull)
-        .map(field -> getFieldValue(object, field))
-        .anyMatch(Objects::isNull);
+  private boolean isNotAudited(ProceedingJoinPoint pjp, Object auditEntity) {
+    return repositoryIndex != null && repositoryIndex.isNotAudited(pjp.getThis())
+        || !auditService.isAuditable(auditEntity);
   }
 
-  private Field getField(Object object, Class<? extends Annotation> annotation) {
-    var fieldsListWithAnnotation = FieldUtils.getFieldsListWithAnnotation(object.getClass(), annotation);
-    return fieldsListWithAnnotation.isEmpty() ? null : fieldsListWithAnnotation.get(0);
-  }
+  /**
+   * Saved entities split into new and existing ones, a batch of only one kind without
+   * {@code null} elements is kept as is. {@code null} elements are skipped in both lists.
+   */
+  private record Saves(List<Object> created, List<Object> updated) {
+
+    private static Saves of(List<Object> auditables, AuditService auditService) {
+      var size = auditables.size();
+      var firstIsNew = auditService.isNew(auditables.get(0));
+      var split = 1;
+      var nulls = false;
+      for (; split < size; split++) {
+        var auditable = auditables.get(split);
+        if (auditable == null) {
+          nulls = true;
+        } else if (auditService.isNew(auditable) != firstIsNew) {
+          break;
+        }
+      }
+      if (split == size && !nulls) {
+        return firstIsNew ? new Saves(auditables, List.of()) : new Saves(List.of(), auditables);
+      }
+      var same = new ArrayList<>(split);
+      for (int i = 0; i < split; i++) {
+        addIfPresent(same, auditables.get(i));
+      }
+      var other = new ArrayList<>(size - split);
+      for (int i = split; i < size; i++) {
+        var auditable = auditables.get(i);
+        if (auditable != null) {
+          (i > split && auditService.isNew(auditable) == firstIsNew ? same : other).add(auditable);
+        }
+      }
+      return firstIsNew ? new Saves(same, other) : new Saves(other, same);
+    }
 
-  @SneakyThrows
-  private Object getFieldValue(Object object, Field field) {
-    return PropertyUtils.getProperty(object, field.getName());
+    private static void addIfPresent(List<Object> auditables, Object auditable) {
+      if (auditable != null) {
+        auditables.add(auditable);
+      }
+    }
   }
 
   private Object proceedWithArgumentValue(ProceedingJoinPoint pjp, AuditEvent auditEvent, List<Object> auditables)
@@ -117,10 +185,31 @@ public class AuditAspect {
     return retVal;
   }
 
+  /**
+   * Sends the event of the returned entity or collection. A {@link Stream}, {@link Iterator} or
+   * lazy {@link Iterable} declared as the return type is returned wrapped instead, its entities
+   * are audited while the caller consumes them.
+   */
   private Object proceedWithReturnObject(ProceedingJoinPoint pjp, AuditEvent auditEvent) throws Throwable {
     var proceed = pjp.proceed();
-    auditService.getAuditables(proceed).
-        ifPresent(auditables -> auditService.sendAuditEvent(auditables, auditEvent.action()));
+    if (proceed instanceof Stream<?> stream && isReturnType(pjp, Stream.class)) {
+      return auditService.auditStream(stream, auditEvent.action());
+    }
+    if (proceed instanceof Iterator<?> iterator && isReturnType(pjp, Iterator.class)) {
+      return auditService.auditIterator(iterator, auditEvent.action());
+    }
+    if (proceed instanceof Iterable<?> iterable && !(proceed instanceof Collection)
+        && isReturnType(pjp, Iterable.class)) {
+      return auditService.auditIterable(iterable, auditEvent.action());
+    }
+    if (auditService.isAuditable(proceed)) {
+      auditService.sendAuditEvent(proceed, auditEvent.action());
+    }
     return proceed;
   }
+
+  private boolean isReturnType(ProceedingJoinPoint pjp, Class<?> type) {
+    return pjp.getSignature() instanceof MethodSignature signature
+        && signature.getReturnType() == type;
+  }
 }
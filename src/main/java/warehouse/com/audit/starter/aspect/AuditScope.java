@@ -0,0 +1,100 @@
+package warehouse.com.audit.starter.aspect;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Audit state of the current {@link warehouse.com.audit.starter.annotation.AuditEvent} call.
+ * <p> The state is bound to the calling thread only and restored when the call returns, so nested
+ * calls see their own state and no entry is added or removed per call. It is not inherited by new
+ * threads; tasks that should see it on another thread, e.g. executor or
+ * {@link java.util.concurrent.CompletableFuture} stages, are wrapped with {@link #wrap(Runnable)}
+ * or an executor with {@link #wrap(Executor)}, which capture one reference at submission. </p>
+ */
+@UtilityClass
+public class AuditScope {
+
+  private static final ThreadLocal<Boolean> DEFAULT_EVENTS_DISABLED = new ThreadLocal<>();
+
+  /**
+   * Whether repository save and delete events are disabled by the enclosing
+   * {@link warehouse.com.audit.starter.annotation.AuditEvent#disableDefaultEvents()}.
+   */
+  public static boolean isDefaultEventsDisabled() {
+    return DEFAULT_EVENTS_DISABLED.get() == Boolean.TRUE;
+  }
+
+  /**
+   * Runs the task with default events disabled or enabled, like an {@code AuditEvent} method.
+   *
+   * @param defaultEventsDisabled Whether repository save and delete events are disabled
+   * @param task                  Task
+   */
+  public static void run(boolean defaultEventsDisabled, Runnable task) {
+    var previous = enter(defaultEventsDisabled);
+    try {
+      task.run();
+    } finally {
+      restore(previous);
+    }
+  }
+
+  /**
+   * Returns a task running with the audit state of the calling thread.
+   *
+   * @param task Task
+   */
+  public static Runnable wrap(Runnable task) {
+    var captured = DEFAULT_EVENTS_DISABLED.get();
+    return () -> {
+      var previous = enter(captured);
+      try {
+        task.run();
+      } finally {
+        restore(previous);
+      }
+    };
+  }
+
+  /**
+   * Returns a task running with the audit state of the calling thread.
+   *
+   * @param task Task
+   */
+  public static <T> Callable<T> wrap(Callable<T> task) {
+    var captured = DEFAULT_EVENTS_DISABLED.get();
+    return () -> {
+      var previous = enter(captured);
+      try {
+        return task.call();
+      } finally {
+        restore(previous);
+      }
+    };
+  }
+
+  /**
+   * Returns an executor running each task with the audit state of the thread that submitted it.
+   *
+   * @param executor Executor
+   */
+  public static Executor wrap(Executor executor) {
+    return task -> executor.execute(wrap(task));
+  }
+
+  /**
+   * Binds the state to the calling thread.
+   *
+   * @return Previous state to be passed to {@link #restore(Boolean)}
+   */
+  static Boolean enter(Boolean defaultEventsDisabled) {
+    var previous = DEFAULT_EVENTS_DISABLED.get();
+    DEFAULT_EVENTS_DISABLED.set(defaultEventsDisabled);
+    return previous;
+  }
+
+  static void restore(Boolean previous) {
+    DEFAULT_EVENTS_DISABLED.set(previous);
+  }
+}
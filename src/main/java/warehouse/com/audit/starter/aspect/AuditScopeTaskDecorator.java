@@ -0,0 +1,16 @@
+package warehouse.com.audit.starter.aspect;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Propagates the {@link AuditScope} of the submitting thread to tasks of a Spring
+ * {@code ThreadPoolTaskExecutor} or {@code SimpleAsyncTaskExecutor}. Declared as the only
+ * {@link TaskDecorator} bean it is applied to the executor auto-configured by Spring Boot.
+ */
+public class AuditScopeTaskDecorator implements TaskDecorator {
+
+  @Override
+  public Runnable decorate(Runnable runnable) {
+    return AuditScope.wrap(runnable);
+  }
+}
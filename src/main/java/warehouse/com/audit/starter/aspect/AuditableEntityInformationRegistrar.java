@@ -0,0 +1,36 @@
+package warehouse.com.audit.starter.aspect;
+
+import java.util.HashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.repository.core.EntityInformation;
+import org.springframework.data.repository.support.Repositories;
+import warehouse.com.audit.starter.service.AuditService;
+
+/**
+ * Hands the entity information of audited repository domain types to
+ * {@link AuditService#isNew(Object)} on startup, whether repositories are indexed or not.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class AuditableEntityInformationRegistrar implements SmartInitializingSingleton {
+
+  private final ListableBeanFactory beanFactory;
+  private final AuditService auditService;
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    var repositories = new Repositories(beanFactory);
+    var entityInformation = new HashMap<Class<?>, EntityInformation<?, ?>>();
+    for (Class<?> domainType : repositories) {
+      if (auditService.getMetadata(domainType).isAuditable()) {
+        entityInformation.put(domainType, repositories.getEntityInformationFor(domainType));
+      }
+    }
+    auditService.setEntityInformation(entityInformation);
+    log.debug("Registered entity information of {} audited domain types",
+        entityInformation.size());
+  }
+}
@@ -0,0 +1,46 @@
+package warehouse.com.audit.starter.aspect;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.repository.support.Repositories;
+import warehouse.com.audit.starter.service.AuditService;
+
+/**
+ * Startup-computed index of repository proxies by whether their domain type is audited.
+ * Repositories unknown to the index are treated as audited.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class AuditableRepositoryIndex implements SmartInitializingSingleton {
+
+  private final ListableBeanFactory beanFactory;
+  private final AuditService auditService;
+
+  private volatile Map<Class<?>, Boolean> audited = Map.of();
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    var repositories = new Repositories(beanFactory);
+    var index = new HashMap<Class<?>, Boolean>();
+    for (Class<?> domainType : repositories) {
+      var isAuditable = auditService.getMetadata(domainType).isAuditable();
+      repositories.getRepositoryFor(domainType).ifPresent(repository -> index.put(
+          repository.getClass(), isAuditable));
+    }
+    audited = Map.copyOf(index);
+    log.debug("Indexed {} repositories for audit", index.size());
+  }
+
+  /**
+   * Returns {@code true} if the repository is known to manage a not audited domain type.
+   *
+   * @param repository Repository proxy
+   */
+  public boolean isNotAudited(Object repository) {
+    return repository != null && Boolean.FALSE.equals(audited.get(repository.getClass()));
+  }
+}
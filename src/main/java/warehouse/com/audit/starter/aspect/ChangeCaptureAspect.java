@@ -0,0 +1,40 @@
+package warehouse.com.audit.starter.aspect;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import warehouse.com.audit.starter.diff.ChangeTracker;
+
+/**
+ * Takes snapshots of entities returned by repository query methods, named with any of the
+ * Spring Data query prefixes, so their changed fields can be reported on the next save. Entities
+ * of a returned stream are taken as they are consumed.
+ */
+@Aspect
+@RequiredArgsConstructor
+public class ChangeCaptureAspect {
+
+  private final ChangeTracker changeTracker;
+
+  @Around("execution(* org.springframework.data.repository.Repository+.find*(..))"
+      + " || execution(* org.springframework.data.repository.Repository+.get*(..))"
+      + " || execution(* org.springframework.data.repository.Repository+.read*(..))"
+      + " || execution(* org.springframework.data.repository.Repository+.query*(..))"
+      + " || execution(* org.springframework.data.repository.Repository+.search*(..))"
+      + " || execution(* org.springframework.data.repository.Repository+.stream*(..))")
+  public Object snapshotLoaded(ProceedingJoinPoint pjp) throws Throwable {
+    var loaded = pjp.proceed();
+    if (loaded instanceof Stream<?> stream) {
+      return stream.peek(changeTracker::snapshot);
+    }
+    if (loaded instanceof Optional<?> optional) {
+      optional.ifPresent(changeTracker::snapshot);
+    } else {
+      changeTracker.snapshot(loaded);
+    }
+    return loaded;
+  }
+}
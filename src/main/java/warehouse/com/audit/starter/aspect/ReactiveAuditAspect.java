@@ -0,0 +1,215 @@
+package warehouse.com.audit.starter.aspect;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.context.ContextView;
+import warehouse.com.audit.starter.annotation.AuditEvent;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.audit.starter.service.AuditService;
+
+/**
+ * Audits saves and deletes of {@code ReactiveCrudRepository} without blocking the caller. Events
+ * are published when the returned publisher succeeds, on the given scheduler, and the saved
+ * entities are emitted once their event is published. Entities of a streamed {@code saveAll} are
+ * published in batches, the next batch is requested only after the previous one is published.
+ * The create or update action of an entity is decided before it is saved and looked up by the
+ * identity of the saved entity, a saved entity that is another instance is audited by its saved
+ * state. Entities of a streamed {@code deleteAll} are collected in batches of the chunk
+ * {@code max-entities} and published only when the delete completes successfully, like the
+ * entities of a delete of an iterable.
+ * <p> {@link AuditEvent#disableDefaultEvents()} of a method returning {@link Mono} or {@link Flux}
+ * is carried in the Reactor context of the returned publisher. </p>
+ */
+@Aspect
+public class ReactiveAuditAspect {
+
+  private final AuditService auditService;
+  private final AuditProperties.Reactive properties;
+  private final int maxEntities;
+  private final Scheduler scheduler;
+
+  /**
+   * Creates the aspect.
+   *
+   * @param auditService Audit service
+   * @param properties   Batching of streamed saves and deletes
+   * @param scheduler    Scheduler of the blocking publishing of events
+   */
+  public ReactiveAuditAspect(AuditService auditService, AuditProperties properties,
+      Scheduler scheduler) {
+    this.auditService = auditService;
+    this.properties = properties.getReactive();
+    this.maxEntities = properties.getChunk().getMaxEntities();
+    this.scheduler = scheduler;
+  }
+
+  @Around(value = "@annotation(auditEvent) && (execution(reactor.core.publisher.Mono *(..)) "
+      + "|| execution(reactor.core.publisher.Flux *(..)))", argNames = "pjp,auditEvent")
+  public Object propagateScope(ProceedingJoinPoint pjp, AuditEvent auditEvent) throws Throwable {
+    var result = pjp.proceed();
+    var disabled = auditEvent.disableDefaultEvents();
+    if (result instanceof Mono<?> mono) {
+      return mono.contextWrite(context -> context.put(AuditScope.class, disabled));
+    }
+    if (result instanceof Flux<?> flux) {
+      return flux.contextWrite(context -> context.put(AuditScope.class, disabled));
+    }
+    return result;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Around(value = "execution(* org.springframework.data.repository.reactive.ReactiveCrudRepository.save(..))"
+      + " && args(entity)", argNames = "pjp,entity")
+  public Object logSaveEvent(ProceedingJoinPoint pjp, Object entity) throws Throwable {
+    if (AuditScope.isDefaultEventsDisabled() || !auditService.isAuditable(entity)) {
+      return pjp.proceed();
+    }
+    var action = saveAction(entity);
+    var saved = (Mono<Object>) pjp.proceed();
+    return Mono.deferContextual(context -> isDisabled(context)
+        ? saved
+        : saved.flatMap(result -> publish(result, action).thenReturn(result)));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Around(value = "execution(* org.springframework.data.repository.reactive.ReactiveCrudRepository.saveAll(..))"
+      + " && args(entities)", argNames = "pjp,entities")
+  public Object logSaveAllEvent(ProceedingJoinPoint pjp, Object entities) throws Throwable {
+    if (AuditScope.isDefaultEventsDisabled()) {
+      return pjp.proceed();
+    }
+    if (entities instanceof Publisher<?> publisher) {
+      return Flux.deferContextual(context -> {
+        if (isDisabled(context)) {
+          return proceed(pjp, publisher);
+        }
+        var actions = Collections.synchronizedMap(new IdentityHashMap<Object, String>());
+        var tracked = Flux.from(publisher).doOnNext(entity -> {
+          if (auditService.isAuditable(entity)) {
+            actions.put(entity, saveAction(entity));
+          }
+        });
+        return audit(proceed(pjp, tracked), actions);
+      });
+    }
+    if (!auditService.isAuditable(entities)) {
+      return pjp.proceed();
+    }
+    var actions = Collections.synchronizedMap(new IdentityHashMap<Object, String>());
+    for (Object entity : (Iterable<?>) entities) {
+      if (entity != null) {
+        actions.put(entity, saveAction(entity));
+      }
+    }
+    var saved = (Flux<Object>) pjp.proceed();
+    return Flux.deferContextual(context -> isDisabled(context) ? saved : audit(saved, actions));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Around(value = "(execution(* org.springframework.data.repository.reactive.ReactiveCrudRepository.delete(..))"
+      + " || execution(* org.springframework.data.repository.reactive.ReactiveCrudRepository.deleteAll(..)))"
+      + " && args(entities)", argNames = "pjp,entities")
+  public Object logDeleteEvent(ProceedingJoinPoint pjp, Object entities) throws Throwable {
+    if (AuditScope.isDefaultEventsDisabled()) {
+      return pjp.proceed();
+    }
+    if (entities instanceof Publisher<?> publisher) {
+      return Mono.deferContextual(context -> {
+        if (isDisabled(context)) {
+          return proceed(pjp, publisher).then();
+        }
+        var batches = new ArrayList<List<Object>>();
+        var tracked = Flux.from(publisher).doOnNext(entity -> {
+          if (auditService.isAuditable(entity)) {
+            if (batches.isEmpty() || batches.get(batches.size() - 1).size() >= maxEntities) {
+              batches.add(new ArrayList<>());
+            }
+            batches.get(batches.size() - 1).add(entity);
+          }
+        });
+        return proceed(pjp, tracked).then(Flux.defer(() -> Flux.fromIterable(batches))
+            .concatMap(this::publishDeleted)
+            .then());
+      });
+    }
+    if (!auditService.isAuditable(entities)) {
+      return pjp.proceed();
+    }
+    var first = entities instanceof Iterable<?> iterable ? iterable.iterator().next() : entities;
+    var action = auditService.getAnnotation(first).deleteEvent();
+    var result = (Mono<Object>) pjp.proceed();
+    return Mono.deferContextual(context -> isDisabled(context)
+        ? result
+        : result.then(publish(entities, action)).then(Mono.empty()));
+  }
+
+  private Flux<Object> audit(Flux<Object> saved, Map<Object, String> actions) {
+    return saved.map(result -> new Saved(result, actionOf(result, actions)))
+        .bufferTimeout(properties.getBatchSize(), properties.getLinger(), true)
+        .concatMap(batch -> publish(batch).thenMany(Flux.fromIterable(batch).map(Saved::entity)));
+  }
+
+  private Mono<Void> publish(List<Saved> batch) {
+    return Mono.<Void>fromRunnable(() -> {
+      var byAction = new LinkedHashMap<String, List<Object>>();
+      for (Saved saved : batch) {
+        if (saved.action() != null && !saved.action().isEmpty()) {
+          byAction.computeIfAbsent(saved.action(), key -> new ArrayList<>()).add(saved.entity());
+        }
+      }
+      byAction.forEach((action, entities) -> auditService.sendAuditEvent(entities, action));
+    }).subscribeOn(scheduler);
+  }
+
+  /**
+   * Returns the action recorded for the saved entity, or the action of its saved state.
+   */
+  private String actionOf(Object saved, Map<Object, String> actions) {
+    var action = actions.remove(saved);
+    return action != null || !auditService.isAuditable(saved) ? action : saveAction(saved);
+  }
+
+  private Mono<Void> publishDeleted(List<Object> deleted) {
+    return deleted.isEmpty()
+        ? Mono.empty()
+        : publish(deleted, auditService.getAnnotation(deleted.get(0)).deleteEvent());
+  }
+
+  private Mono<Void> publish(Object auditable, String action) {
+    return Mono.<Void>fromRunnable(() -> auditService.sendAuditEvent(auditable, action))
+        .subscribeOn(scheduler);
+  }
+
+  private String saveAction(Object entity) {
+    var annotation = auditService.getAnnotation(entity);
+    return auditService.isNew(entity) ? annotation.createEvent() : annotation.updateEvent();
+  }
+
+  private static boolean isDisabled(ContextView context) {
+    return context.getOrDefault(AuditScope.class, Boolean.FALSE);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Flux<Object> proceed(ProceedingJoinPoint pjp, Publisher<?> argument) {
+    try {
+      return Flux.from((Publisher<Object>) pjp.proceed(new Object[]{argument}));
+    } catch (Throwable e) {
+      return Flux.error(e);
+    }
+  }
+
+  private record Saved(Object entity, String action) {
+
+  }
+}
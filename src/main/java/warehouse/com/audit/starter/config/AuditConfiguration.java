@@ -1,14 +1,38 @@
 package warehouse.com.audit.starter.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import warehouse.com.audit.starter.aspect.AuditAspect;
+import warehouse.com.audit.starter.aspect.AuditableEntityInformationRegistrar;
+import warehouse.com.audit.starter.aspect.AuditableRepositoryIndex;
+import warehouse.com.audit.starter.aspect.ChangeCaptureAspect;
+import warehouse.com.audit.starter.diff.ChangeTracker;
+import warehouse.com.audit.starter.metrics.AuditMetrics;
+import warehouse.com.audit.starter.publisher.AsyncAuditEventPublisher;
+import warehouse.com.audit.starter.publisher.AuditEventCoalescer;
+import warehouse.com.audit.starter.publisher.AuditEventPublisher;
+import warehouse.com.audit.starter.publisher.SpoolingAuditEventPublisher;
+import warehouse.com.audit.starter.policy.AuditPolicies;
+import warehouse.com.audit.starter.serializer.AuditEventSerializer;
+import warehouse.com.audit.starter.serializer.BinaryAuditEventSerializer;
+import warehouse.com.audit.starter.serializer.CompressingAuditEventSerializer;
+import warehouse.com.audit.starter.serializer.CompressionCodec;
 import warehouse.com.audit.starter.service.AuditService;
+import warehouse.com.audit.starter.service.ExtractionPool;
 import warehouse.com.audit.starter.service.ValidationProcessor;
 import warehouse.com.eventstarter.service.EventService;
 
 @AutoConfigureAfter(MongoAutoConfiguration.class)
+@EnableConfigurationProperties(AuditProperties.class)
+@Import(ReactiveAuditConfiguration.class)
 public class AuditConfiguration {
 
   @Bean
@@ -21,8 +45,88 @@ public class AuditConfiguration {
     return new AuditAspect(auditService);
   }
 
+  @Bean
+  public AuditableEntityInformationRegistrar auditableEntityInformationRegistrar(
+      ListableBeanFactory beanFactory, AuditService auditService) {
+    return new AuditableEntityInformationRegistrar(beanFactory, auditService);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "application.audit", name = "index-repositories",
+      havingValue = "true")
+  public AuditableRepositoryIndex auditableRepositoryIndex(ListableBeanFactory beanFactory,
+      AuditService auditService) {
+    return new AuditableRepositoryIndex(beanFactory, auditService);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "application.audit", name = "capture-changes",
+      havingValue = "true")
+  public ChangeTracker changeTracker() {
+    return new ChangeTracker();
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "application.audit", name = "capture-changes",
+      havingValue = "true")
+  public ChangeCaptureAspect changeCaptureAspect(ChangeTracker changeTracker) {
+    return new ChangeCaptureAspect(changeTracker);
+  }
+
   @Bean
   public AuditService auditService(EventService eventService) {
     return new AuditService(eventService);
   }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "application.audit.parallel", name = "enabled",
+      havingValue = "true")
+  public ExtractionPool extractionPool(AuditProperties properties) {
+    return new ExtractionPool(properties.getParallel());
+  }
+
+  @Bean
+  public AuditPolicies auditPolicies(AuditProperties properties) {
+    return new AuditPolicies(properties.getPolicies());
+  }
+
+  @Bean
+  public AuditMetrics auditMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+    var registry = meterRegistry.getIfAvailable();
+    return registry == null ? AuditMetrics.NOOP : new AuditMetrics(registry);
+  }
+
+  @Bean
+  @ConditionalOnMissingBean
+  public AuditEventSerializer auditEventSerializer(AuditProperties properties) {
+    var serializer = new BinaryAuditEventSerializer();
+    return properties.getCompression().getCodec() == CompressionCodec.NONE
+        ? serializer
+        : new CompressingAuditEventSerializer(serializer, properties.getCompression());
+  }
+
+  @Bean
+  public AuditEventPublisher auditEventPublisher(EventService eventService,
+      AuditProperties properties, AuditEventSerializer auditEventSerializer,
+      AuditMetrics auditMetrics) {
+    AuditEventPublisher publisher = eventService::publish;
+    if (properties.getSpool().isEnabled()) {
+      var spooling = new SpoolingAuditEventPublisher(publisher, properties.getSpool(),
+          auditEventSerializer, auditMetrics);
+      auditMetrics.registerQueue("spool", spooling::getPendingCount);
+      return spooling;
+    }
+    if (properties.getAsync().isEnabled()) {
+      var async = new AsyncAuditEventPublisher(publisher, properties.getAsync(), auditMetrics);
+      auditMetrics.registerQueue("async", async::getQueueSize);
+      return async;
+    }
+    return publisher;
+  }
+
+  @Bean
+  public AuditEventCoalescer auditEventCoalescer(AuditEventPublisher auditEventPublisher,
+      AuditProperties properties) {
+    return new AuditEventCoalescer(auditEventPublisher, properties.getCoalesce());
+  }
 }
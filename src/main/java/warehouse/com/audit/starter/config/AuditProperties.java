@@ -0,0 +1,364 @@
+package warehouse.com.audit.starter.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import warehouse.com.audit.starter.serializer.CompressionCodec;
+
+/**
+ * Audit starter settings under {@code application.audit}.
+ */
+@Data
+@ConfigurationProperties(prefix = "application.audit")
+public class AuditProperties {
+
+  /**
+   * Resolve repositories with audited domain types on startup, so saves of other repositories skip
+   * the audit advice without looking at their arguments. Saves of audited subclasses through a
+   * repository of a not audited domain type are not audited when enabled.
+   */
+  private boolean indexRepositories = false;
+
+  /**
+   * Inside a transaction, collect audit events and publish them once after commit. Events of a
+   * rolled back transaction are discarded, equal entities are published once and changed fields
+   * of an entity are combined. Collected entities are chunked like the entities of one call.
+   */
+  private boolean publishAfterCommit = false;
+
+  /**
+   * Snapshot entities with {@code AuditableEntity#captureChanges} on repository loads and saves,
+   * and add their changed fields to the description of update events.
+   */
+  private boolean captureChanges = false;
+
+  /**
+   * Splitting of large collections into several audit events.
+   */
+  private Chunk chunk = new Chunk();
+
+  /**
+   * Parallel extraction of the entities of large collections.
+   */
+  private Parallel parallel = new Parallel();
+
+  /**
+   * Publishing of audit events off the caller thread. Not applied when the spool is enabled, the
+   * spool forwards events from its own thread.
+   */
+  private Async async = new Async();
+
+  /**
+   * Merging of repeated events of the same entity.
+   */
+  private Coalesce coalesce = new Coalesce();
+
+  /**
+   * Compression of serialized audit events.
+   */
+  private Compression compression = new Compression();
+
+  /**
+   * Auditing of reactive repositories.
+   */
+  private Reactive reactive = new Reactive();
+
+  /**
+   * Runtime overrides of auditing, rate limiting and sampling per entity type and action.
+   */
+  private Policies policies = new Policies();
+
+  /**
+   * Local write-ahead spool that events are written to before they are published. Spooled events
+   * are forwarded to EventService one by one and retried until EventService accepts them.
+   */
+  private Spool spool = new Spool();
+
+  @Data
+  public static class Chunk {
+
+    /**
+     * Maximum number of entities in one audit event.
+     */
+    private int maxEntities = 5_000;
+
+    /**
+     * Approximate maximum size of the entities of one audit event.
+     */
+    private DataSize maxSize = DataSize.ofKilobytes(512);
+  }
+
+  @Data
+  public static class Parallel {
+
+    private boolean enabled = false;
+
+    /**
+     * Minimum number of elements of a collection whose entities are extracted in parallel.
+     */
+    private int threshold = 10_000;
+
+    /**
+     * Number of extraction threads.
+     */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Number of entities extracted by one fork-join task.
+     */
+    private int taskSize = 2_048;
+  }
+
+  @Data
+  public static class Async {
+
+    private boolean enabled = false;
+
+    /**
+     * Maximum number of events waiting to be published.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Number of publishing threads. More than one thread does not keep the publishing order.
+     */
+    private int threads = 1;
+
+    /**
+     * Publish on virtual threads, requires JDK 21. Platform threads are used otherwise.
+     */
+    private boolean virtualThreads = false;
+
+    /**
+     * What to do with a new event when the queue is full.
+     */
+    private OverflowPolicy overflow = OverflowPolicy.BLOCK;
+
+    /**
+     * How long to wait for queued events on context shutdown.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+  }
+
+  @Data
+  public static class Coalesce {
+
+    /**
+     * Coalescing window per entity type, overrides {@code AuditableEntity#coalesceWindowMillis}.
+     * Zero disables coalescing of the entity type.
+     */
+    private Map<String, Duration> windows = new HashMap<>();
+  }
+
+  @Data
+  public static class Spool {
+
+    private boolean enabled = false;
+
+    /**
+     * Absolute directory of the spool segment files and checkpoint, required when the spool is
+     * enabled. It is locked while in use, so every application instance needs its own directory.
+     */
+    private Path directory;
+
+    /**
+     * Size of one memory-mapped segment file, also the limit of one serialized event.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Force every spooled event to the storage device. Without it events survive a crash of the
+     * application but not of the operating system.
+     */
+    private boolean force = false;
+
+    /**
+     * Delay before the first retry of a failed event, doubled on every further failure.
+     */
+    private Duration retryBackoff = Duration.ofMillis(100);
+
+    /**
+     * Maximum delay between retries of a failed event.
+     */
+    private Duration maxRetryBackoff = Duration.ofSeconds(30);
+
+    /**
+     * How long to forward spooled events on context shutdown, the rest is kept for the next start.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+  }
+
+  @Data
+  public static class Compression {
+
+    /**
+     * Compression codec, payloads are not compressed with NONE.
+     */
+    private CompressionCodec codec = CompressionCodec.NONE;
+
+    /**
+     * Serialized events smaller than this are not compressed.
+     */
+    private DataSize threshold = DataSize.ofKilobytes(8);
+
+    /**
+     * Compression level of ZSTD, ignored by LZ4.
+     */
+    private int level = 3;
+
+    /**
+     * Largest uncompressed length accepted from a payload header, larger payloads are rejected.
+     */
+    private DataSize maxDecompressedSize = DataSize.ofMegabytes(16);
+  }
+
+  @Data
+  public static class Reactive {
+
+    /**
+     * Maximum number of entities of a streamed {@code saveAll} in one audit event.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Longest time a saved entity of a streamed {@code saveAll} waits for its batch.
+     */
+    private Duration linger = Duration.ofMillis(100);
+  }
+
+  @Data
+  public static class Sampling {
+
+    private SamplingType type = SamplingType.RATE_LIMIT;
+
+    /**
+     * Events per second of RATE_LIMIT.
+     */
+    private double rate = 1;
+
+    /**
+     * Events RATE_LIMIT lets through at once after a quiet period.
+     */
+    private int burst = 1;
+
+    /**
+     * Share of events SAMPLE lets through, between 0 and 1.
+     */
+    private double probability = 1;
+
+    /**
+     * Events FIRST_N lets through per window.
+     */
+    private int limit = 1;
+
+    /**
+     * Window of FIRST_N.
+     */
+    private Duration window = Duration.ofMinutes(1);
+  }
+
+  @Data
+  public static class Policies {
+
+    /**
+     * Rules per entity type and optionally action. Replacing the list at runtime, e.g. by a
+     * refresh of the configuration properties, reloads the rules.
+     */
+    private List<Rule> rules = new ArrayList<>();
+
+    /**
+     * YAML or properties file with further {@code rules}, they take precedence over the rules
+     * above. The file is reloaded when it changes.
+     */
+    private Path file;
+
+    /**
+     * Interval of checking the policy file for changes.
+     */
+    private Duration reloadInterval = Duration.ofSeconds(10);
+  }
+
+  @Data
+  public static class Rule {
+
+    /**
+     * Entity type the rule applies to.
+     */
+    private String entityType;
+
+    /**
+     * Action the rule applies to, as named by the annotation. Applies to all actions of the entity
+     * type when empty, rules with an action take precedence.
+     */
+    private String action;
+
+    /**
+     * Publish events of the entity type and action, inherited when empty.
+     */
+    private Boolean enabled;
+
+    /**
+     * Action name of the published events, the annotation value is kept when empty.
+     */
+    private String actionName;
+
+    /**
+     * When events are published, {@code application.audit.publish-after-commit} decides when
+     * empty.
+     */
+    private PublishMode publishMode;
+
+    /**
+     * Rate limiting or sampling of the published events, inherited when empty. Events of the
+     * entity type share the limit of a rule without an action.
+     */
+    private Sampling sampling;
+  }
+
+  public enum PublishMode {
+    /**
+     * Events are published right away.
+     */
+    IMMEDIATE,
+    /**
+     * Events are published after the surrounding transaction commits.
+     */
+    AFTER_COMMIT
+  }
+
+  public enum SamplingType {
+    /**
+     * Token bucket of {@code rate} events per second holding up to {@code burst} events.
+     */
+    RATE_LIMIT,
+    /**
+     * Random share of {@code probability} of the events.
+     */
+    SAMPLE,
+    /**
+     * First {@code limit} events of every {@code window}.
+     */
+    FIRST_N
+  }
+
+  public enum OverflowPolicy {
+    /**
+     * Caller waits for a free slot in the queue.
+     */
+    BLOCK,
+    /**
+     * The oldest queued event is dropped.
+     */
+    DROP_OLDEST,
+    /**
+     * Caller publishes the event itself.
+     */
+    CALLER_RUNS
+  }
+}
@@ -0,0 +1,22 @@
+package warehouse.com.audit.starter.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Schedulers;
+import warehouse.com.audit.starter.aspect.ReactiveAuditAspect;
+import warehouse.com.audit.starter.service.AuditService;
+
+/**
+ * Auditing of reactive repositories, active when Project Reactor is on the classpath.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(name = "reactor.core.publisher.Flux")
+public class ReactiveAuditConfiguration {
+
+  @Bean
+  public ReactiveAuditAspect reactiveAuditAspect(AuditService auditService,
+      AuditProperties properties) {
+    return new ReactiveAuditAspect(auditService, properties, Schedulers.boundedElastic());
+  }
+}
@@ -0,0 +1,77 @@
+package warehouse.com.audit.starter.diff;
+
+import com.google.common.collect.MapMaker;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import warehouse.com.audit.starter.annotation.AuditableEntity;
+
+/**
+ * Keeps snapshots of loaded and saved entities with {@link AuditableEntity#captureChanges()} and
+ * tells which fields were changed before the next save. Snapshots are held by entity identity and
+ * dropped with the entity.
+ */
+public class ChangeTracker {
+
+  private final Map<Class<?>, Optional<EntityDiffer>> differs = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Object, Object[]> snapshots = new MapMaker().weakKeys().makeMap();
+
+  /**
+   * Takes snapshots of the entity or of the elements of an iterable.
+   *
+   * @param loaded Loaded or saved entity, iterable of entities or any other value
+   */
+  public void snapshot(Object loaded) {
+    if (loaded instanceof Iterable<?> iterable) {
+      for (Object entity : iterable) {
+        snapshotEntity(entity);
+      }
+    } else {
+      snapshotEntity(loaded);
+    }
+  }
+
+  /**
+   * Returns changed fields of entities that have a snapshot.
+   *
+   * @param entities Entities about to be saved
+   * @return Identity map of entities to their changed field names, {@code null} without snapshots
+   */
+  public Map<Object, List<String>> changes(List<Object> entities) {
+    Map<Object, List<String>> changes = null;
+    for (Object entity : entities) {
+      var snapshot = entity == null ? null : snapshots.get(entity);
+      if (snapshot != null) {
+        if (changes == null) {
+          changes = new IdentityHashMap<>();
+        }
+        changes.put(entity, differ(entity.getClass()).orElseThrow().changes(snapshot, entity));
+      }
+    }
+    return changes;
+  }
+
+  public boolean isTracked(Class<?> type) {
+    return differ(type).isPresent();
+  }
+
+  private void snapshotEntity(Object entity) {
+    if (entity != null) {
+      differ(entity.getClass())
+          .ifPresent(differ -> snapshots.put(entity, differ.snapshot(entity)));
+    }
+  }
+
+  private Optional<EntityDiffer> differ(Class<?> type) {
+    var differ = differs.get(type);
+    if (differ == null) {
+      var annotation = type.getAnnotation(AuditableEntity.class);
+      differ = differs.computeIfAbsent(type, key -> annotation != null
+          && annotation.captureChanges() ? Optional.of(new EntityDiffer(key)) : Optional.empty());
+    }
+    return differ;
+  }
+}
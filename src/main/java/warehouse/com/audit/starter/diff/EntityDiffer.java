@@ -0,0 +1,286 @@
+package warehouse.com.audit.starter.diff;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.springframework.data.annotation.CreatedBy;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedBy;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
+import warehouse.com.audit.starter.metadata.AuditableAccessor;
+import warehouse.com.audit.starter.metadata.AuditableAccessors;
+
+/**
+ * Compares the persistent fields of one class. Fields are resolved once into generated
+ * {@link AuditableAccessor accessors}; static, {@code transient}, Spring Data or JPA
+ * {@code @Transient}, auditing and version fields are skipped.
+ * <p> Values of other than JDK types, e.g. embedded or value objects, are snapshotted field by
+ * field with a differ of their own class, so in-place changes of their fields are detected too.
+ * Referenced entities, proxies and objects reached again while taking a snapshot, e.g. through a
+ * back reference, are kept by reference and compared with {@code equals}. </p>
+ */
+public class EntityDiffer {
+
+  private static final Set<String> TRANSIENT_ANNOTATIONS = Set.of(
+      "jakarta.persistence.Transient", "javax.persistence.Transient");
+  private static final Set<String> ENTITY_ANNOTATIONS = Set.of(
+      "jakarta.persistence.Entity", "javax.persistence.Entity",
+      "org.springframework.data.mongodb.core.mapping.Document",
+      "warehouse.com.audit.starter.annotation.AuditableEntity");
+  private static final Map<Class<?>, Optional<EntityDiffer>> NESTED = new ConcurrentHashMap<>();
+
+  private final Class<?> type;
+  private final String[] names;
+  private final AuditableAccessor[] accessors;
+  private final boolean[] copied;
+
+  public EntityDiffer(Class<?> type) {
+    var fields = FieldUtils.getAllFieldsList(type).stream()
+        .filter(EntityDiffer::isCompared)
+        .toList();
+    this.type = type;
+    this.names = new String[fields.size()];
+    this.accessors = new AuditableAccessor[fields.size()];
+    this.copied = new boolean[fields.size()];
+    for (int i = 0; i < fields.size(); i++) {
+      names[i] = fields.get(i).getName();
+      copied[i] = !isImmutable(fields.get(i).getType());
+      accessors[i] = AuditableAccessors.forField(type, fields.get(i));
+    }
+  }
+
+  public int getFieldCount() {
+    return names.length;
+  }
+
+  /**
+   * Reads the compared field values. Lists, sets, maps, dates, arrays and objects of other than
+   * JDK types are copied with the values nested in them, so later in-place modifications are
+   * detected. Fields of immutable JDK types are never inspected.
+   *
+   * @param entity Entity of the differ class
+   */
+  public Object[] snapshot(Object entity) {
+    var visited = new IdentityHashMap<Object, Boolean>();
+    visited.put(entity, Boolean.TRUE);
+    return snapshot(entity, visited);
+  }
+
+  private Object[] snapshot(Object entity, Map<Object, Boolean> visited) {
+    var values = new Object[accessors.length];
+    for (int i = 0; i < accessors.length; i++) {
+      var value = accessors[i].get(entity);
+      values[i] = copied[i] ? copy(value, visited) : value;
+    }
+    return values;
+  }
+
+  /**
+   * Returns names of the fields whose values differ from the snapshot.
+   *
+   * @param snapshot Values taken by {@link #snapshot(Object)}
+   * @param entity   Entity of the differ class
+   */
+  public List<String> changes(Object[] snapshot, Object entity) {
+    List<String> changes = null;
+    for (int i = 0; i < accessors.length; i++) {
+      if (!same(snapshot[i], accessors[i].get(entity))) {
+        if (changes == null) {
+          changes = new ArrayList<>(4);
+        }
+        changes.add(names[i]);
+      }
+    }
+    return changes == null ? List.of() : changes;
+  }
+
+  private static boolean isCompared(Field field) {
+    var modifiers = field.getModifiers();
+    return !Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)
+        && !field.isSynthetic()
+        && !field.isAnnotationPresent(Transient.class)
+        && !isPersistenceTransient(field)
+        && !field.isAnnotationPresent(Version.class)
+        && !field.isAnnotationPresent(LastModifiedDate.class)
+        && !field.isAnnotationPresent(LastModifiedBy.class)
+        && !field.isAnnotationPresent(CreatedDate.class)
+        && !field.isAnnotationPresent(CreatedBy.class);
+  }
+
+  /**
+   * Tells JPA {@code @Transient} fields by the annotation name, the persistence API is optional.
+   */
+  private static boolean isPersistenceTransient(Field field) {
+    for (Annotation annotation : field.getDeclaredAnnotations()) {
+      if (TRANSIENT_ANNOTATIONS.contains(annotation.annotationType().getName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isImmutable(Class<?> type) {
+    if (type.isPrimitive() || type.isEnum()) {
+      return true;
+    }
+    var name = type.getName();
+    return type == String.class || type == Boolean.class || type == Character.class
+        || type == UUID.class || name.startsWith("java.time.")
+        || Number.class.isAssignableFrom(type) && name.startsWith("java.")
+        && !name.startsWith("java.util.concurrent.");
+  }
+
+  private static Object copy(Object value, Map<Object, Boolean> visited) {
+    if (value == null || isImmutable(value.getClass())) {
+      return value;
+    }
+    if (value instanceof List<?> list) {
+      var copy = new ArrayList<>(list.size());
+      list.forEach(element -> copy.add(copy(element, visited)));
+      return copy;
+    }
+    if (value instanceof Set<?> set) {
+      var elements = new ArrayList<Object>(set);
+      var copies = new ArrayList<>(elements.size());
+      elements.forEach(element -> copies.add(copy(element, visited)));
+      return new SetSnapshot(elements, copies);
+    }
+    if (value instanceof Map<?, ?> map) {
+      var copy = new HashMap<>(map.size() * 4 / 3 + 1);
+      map.forEach((key, element) -> copy.put(key, copy(element, visited)));
+      return copy;
+    }
+    if (value instanceof Date date) {
+      return date.clone();
+    }
+    if (value instanceof Object[] array) {
+      var copy = array.clone();
+      for (int i = 0; i < copy.length; i++) {
+        copy[i] = copy(copy[i], visited);
+      }
+      return copy;
+    }
+    if (value.getClass().isArray()) {
+      var length = Array.getLength(value);
+      var copy = Array.newInstance(value.getClass().getComponentType(), length);
+      System.arraycopy(value, 0, copy, 0, length);
+      return copy;
+    }
+    var differ = NESTED.computeIfAbsent(value.getClass(), EntityDiffer::nested);
+    if (differ.isEmpty() || visited.put(value, Boolean.TRUE) != null) {
+      return value;
+    }
+    return new NestedSnapshot(differ.get(), differ.get().snapshot(value, visited));
+  }
+
+  /**
+   * Returns a differ for values of the type unless they are compared by reference: JDK types,
+   * proxies and entities of their own.
+   */
+  private static Optional<EntityDiffer> nested(Class<?> type) {
+    var name = type.getName();
+    if (name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.")
+        || name.startsWith("sun.") || name.contains("$$") || name.contains("$HibernateProxy$")) {
+      return Optional.empty();
+    }
+    for (Annotation annotation : type.getAnnotations()) {
+      if (ENTITY_ANNOTATIONS.contains(annotation.annotationType().getName())) {
+        return Optional.empty();
+      }
+    }
+    return Optional.of(new EntityDiffer(type));
+  }
+
+  /**
+   * Compares a snapshot value with the current one, lists, maps, arrays and nested objects element
+   * by element. A set is the same if it still contains the snapshotted elements and they did not
+   * change.
+   */
+  private static boolean same(Object snapshot, Object value) {
+    if (snapshot == value) {
+      return true;
+    }
+    if (snapshot instanceof NestedSnapshot nested) {
+      return value != null && value.getClass() == nested.differ().type
+          && nested.differ().changes(nested.values(), value).isEmpty();
+    }
+    if (snapshot instanceof SetSnapshot set) {
+      if (!(value instanceof Set<?> other) || set.elements().size() != other.size()) {
+        return false;
+      }
+      for (int i = 0; i < set.elements().size(); i++) {
+        var element = set.elements().get(i);
+        if (!other.contains(element) || !same(set.copies().get(i), element)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (snapshot instanceof List<?> list && value instanceof List<?> other) {
+      if (list.size() != other.size()) {
+        return false;
+      }
+      Iterator<?> iterator = other.iterator();
+      for (Object element : list) {
+        if (!same(element, iterator.next())) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (snapshot instanceof Map<?, ?> map && value instanceof Map<?, ?> other) {
+      if (map.size() != other.size()) {
+        return false;
+      }
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        if (!other.containsKey(entry.getKey())
+            || !same(entry.getValue(), other.get(entry.getKey()))) {
+          return false;
+        }
+      }
+      return true;
+    }
+    if (snapshot instanceof Object[] array && value instanceof Object[] other) {
+      if (array.length != other.length) {
+        return false;
+      }
+      for (int i = 0; i < array.length; i++) {
+        if (!same(array[i], other[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return Objects.deepEquals(snapshot, value);
+  }
+
+  /**
+   * Field values of an object of a nested differ.
+   */
+  private record NestedSnapshot(EntityDiffer differ, Object[] values) {
+
+  }
+
+  /**
+   * Elements of a set by reference along with their snapshots.
+   */
+  private record SetSnapshot(List<Object> elements, List<Object> copies) {
+
+  }
+}
@@ -0,0 +1,29 @@
+package warehouse.com.audit.starter.metadata;
+
+/**
+ * Reads a single value of an auditable entity, resolved once per class by
+ * {@link AuditableMetadata}.
+ */
+@FunctionalInterface
+public interface AuditableAccessor {
+
+  AuditableAccessor NONE = target -> null;
+
+  Object get(Object target);
+
+  /**
+   * Returns the value of this accessor or of the fallback one when the value is {@code null}.
+   */
+  default AuditableAccessor orElse(AuditableAccessor fallback) {
+    if (this == NONE) {
+      return fallback;
+    }
+    if (fallback == NONE) {
+      return this;
+    }
+    return target -> {
+      var value = get(target);
+      return value == null ? fallback.get(target) : value;
+    };
+  }
+}
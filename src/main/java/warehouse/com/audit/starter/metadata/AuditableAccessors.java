@@ -0,0 +1,88 @@
+package warehouse.com.audit.starter.metadata;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import lombok.SneakyThrows;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+
+/**
+ * Generates {@link AuditableAccessor} instances for annotated members. Getters are bound with
+ * {@link LambdaMetafactory}, fields without getters are read through a {@link MethodHandle}.
+ * Reflection is used only when neither can be generated.
+ */
+@Slf4j
+@UtilityClass
+public class AuditableAccessors {
+
+  private static final MethodType ACCESSOR_TYPE = MethodType.methodType(AuditableAccessor.class);
+  private static final MethodType GET_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  /**
+   * Creates an accessor of the field. The getter of the field is preferred so Lombok or
+   * hand-written getters keep their behaviour.
+   */
+  public static AuditableAccessor forField(Class<?> type, Field field) {
+    var descriptor = BeanUtils.getPropertyDescriptor(type, field.getName());
+    if (descriptor != null && descriptor.getReadMethod() != null) {
+      return forMethod(descriptor.getReadMethod());
+    }
+    try {
+      var lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+      return handleAccessor(lookup.unreflectGetter(field));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      log.debug("Falling back to reflection for field {}", field, e);
+      field.setAccessible(true);
+      return target -> getField(field, target);
+    }
+  }
+
+  /**
+   * Creates an accessor invoking the method without arguments.
+   */
+  public static AuditableAccessor forMethod(Method method) {
+    MethodHandle handle;
+    MethodHandles.Lookup lookup;
+    try {
+      lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+      handle = lookup.unreflect(method);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      log.debug("Falling back to reflection for method {}", method, e);
+      method.setAccessible(true);
+      return target -> invoke(method, target);
+    }
+    try {
+      var site = LambdaMetafactory.metafactory(lookup, "get", ACCESSOR_TYPE, GET_TYPE, handle,
+          handle.type().wrap());
+      return (AuditableAccessor) site.getTarget().invoke();
+    } catch (Throwable e) {
+      log.debug("Falling back to method handle for method {}", method, e);
+      return handleAccessor(handle);
+    }
+  }
+
+  private static AuditableAccessor handleAccessor(MethodHandle handle) {
+    var generic = handle.asType(GET_TYPE);
+    return target -> invokeExact(generic, target);
+  }
+
+  @SneakyThrows
+  private static Object invokeExact(MethodHandle handle, Object target) {
+    return (Object) handle.invokeExact(target);
+  }
+
+  @SneakyThrows
+  private static Object invoke(Method method, Object target) {
+    return method.invoke(target);
+  }
+
+  @SneakyThrows
+  private static Object getField(Field field, Object target) {
+    return field.get(target);
+  }
+}
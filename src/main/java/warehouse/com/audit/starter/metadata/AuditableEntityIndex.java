@@ -0,0 +1,133 @@
+package warehouse.com.audit.starter.metadata;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Index of {@link warehouse.com.audit.starter.annotation.AuditableEntity} classes and their
+ * annotated members, written at compile time by
+ * {@link warehouse.com.audit.starter.processor.AuditableEntityIndexProcessor}.
+ * <p> Each line of {@value #LOCATION} is a binary class name followed by space separated
+ * {@code role=field:name} or {@code role=method:name} members. </p>
+ */
+public class AuditableEntityIndex {
+
+  public static final String LOCATION = "META-INF/warehouse-audit/auditable-entities.idx";
+
+  public static final String AUDITABLE_ID = "auditableId";
+  public static final String AUDITABLE_NAME = "auditableName";
+  public static final String AUDITABLE_TYPE = "auditableType";
+  public static final String ID = "id";
+  public static final String LAST_MODIFIED_DATE = "lastModifiedDate";
+
+  public static final String FIELD = "field";
+  public static final String METHOD = "method";
+
+  private static final AuditableEntityIndex EMPTY = new AuditableEntityIndex(Map.of());
+
+  private final Map<String, Entry> entries;
+
+  private AuditableEntityIndex(Map<String, Entry> entries) {
+    this.entries = entries;
+  }
+
+  /**
+   * Reads all indexes visible to the class loader.
+   */
+  public static AuditableEntityIndex load(ClassLoader classLoader) {
+    try {
+      var resources = Collections.list(classLoader.getResources(LOCATION));
+      if (resources.isEmpty()) {
+        return EMPTY;
+      }
+      var entries = new HashMap<String, Entry>();
+      for (URL resource : resources) {
+        read(resource).forEach(entry -> entries.put(entry.className(), entry));
+      }
+      return new AuditableEntityIndex(Map.copyOf(entries));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to read " + LOCATION, e);
+    }
+  }
+
+  /**
+   * Creates an index of the given entries.
+   */
+  public static AuditableEntityIndex of(Collection<Entry> entries) {
+    var byClassName = new HashMap<String, Entry>();
+    entries.forEach(entry -> byClassName.put(entry.className(), entry));
+    return new AuditableEntityIndex(Map.copyOf(byClassName));
+  }
+
+  public static Entry parse(String line) {
+    var tokens = line.trim().split("\\s+");
+    var members = new HashMap<String, List<Member>>();
+    for (int i = 1; i < tokens.length; i++) {
+      var role = tokens[i].substring(0, tokens[i].indexOf('='));
+      var member = tokens[i].substring(role.length() + 1).split(":", 2);
+      members.computeIfAbsent(role, key -> new ArrayList<>())
+          .add(new Member(METHOD.equals(member[0]), member[1]));
+    }
+    return new Entry(tokens[0], members);
+  }
+
+  public boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  public Entry get(String className) {
+    return entries.get(className);
+  }
+
+  public Set<String> getClassNames(String basePackage) {
+    var prefix = basePackage + ".";
+    return entries.keySet().stream()
+        .filter(name -> name.startsWith(prefix))
+        .collect(Collectors.toSet());
+  }
+
+  private static List<Entry> read(URL resource) throws IOException {
+    try (var reader = new BufferedReader(
+        new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+      return reader.lines()
+          .filter(line -> !line.isBlank() && !line.startsWith("#"))
+          .map(AuditableEntityIndex::parse)
+          .toList();
+    }
+  }
+
+  public record Entry(String className, Map<String, List<Member>> members) {
+
+    public String field(String role) {
+      return find(role, false);
+    }
+
+    public String method(String role) {
+      return find(role, true);
+    }
+
+    private String find(String role, boolean method) {
+      return members.getOrDefault(role, List.of()).stream()
+          .filter(member -> member.method() == method)
+          .map(Member::name)
+          .findFirst()
+          .orElse(null);
+    }
+  }
+
+  public record Member(boolean method, String name) {
+
+  }
+}
@@ -0,0 +1,219 @@
+package warehouse.com.audit.starter.metadata;
+
+import static warehouse.com.audit.starter.metadata.AuditableEntityIndex.AUDITABLE_ID;
+import static warehouse.com.audit.starter.metadata.AuditableEntityIndex.AUDITABLE_NAME;
+import static warehouse.com.audit.starter.metadata.AuditableEntityIndex.AUDITABLE_TYPE;
+import static warehouse.com.audit.starter.metadata.AuditableEntityIndex.ID;
+import static warehouse.com.audit.starter.metadata.AuditableEntityIndex.LAST_MODIFIED_DATE;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.apache.commons.lang3.reflect.MethodUtils;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.domain.Persistable;
+import warehouse.com.audit.starter.annotation.AuditableEntity;
+import warehouse.com.audit.starter.annotation.AuditableId;
+import warehouse.com.audit.starter.annotation.AuditableName;
+import warehouse.com.audit.starter.annotation.AuditableType;
+import warehouse.com.audit.starter.exception.AuditInitializationException;
+
+/**
+ * Audit description of a single class: {@link AuditableEntity} values and accessors of the members
+ * annotated with {@link AuditableId}, {@link AuditableName}, {@link AuditableType}, {@link Id} and
+ * {@link LastModifiedDate}. Members are looked up once and read through generated
+ * {@link AuditableAccessors}.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class AuditableMetadata {
+
+  private final Class<?> type;
+  private final AuditableEntity annotation;
+  private final AuditableAccessor auditableId;
+  private final AuditableAccessor auditableName;
+  private final AuditableAccessor auditableType;
+  private final AuditableAccessor id;
+  private final AuditableAccessor lastModifiedDate;
+  /**
+   * Whether the {@link AuditableId} field holds an integral number, its entities are then told
+   * apart by the primitive id value.
+   */
+  private final boolean numericId;
+
+  /**
+   * Resolves metadata of the given class. Classes without {@link AuditableEntity} get metadata
+   * without accessors.
+   */
+  public static AuditableMetadata of(Class<?> type) {
+    return of(type, null);
+  }
+
+  /**
+   * Resolves metadata of the given class, annotated members are taken from the index entry when
+   * present instead of scanning the class hierarchy.
+   */
+  public static AuditableMetadata of(Class<?> type, AuditableEntityIndex.Entry entry) {
+    var annotation = type.getAnnotation(AuditableEntity.class);
+    if (annotation == null) {
+      return new AuditableMetadata(type, null, AuditableAccessor.NONE, AuditableAccessor.NONE,
+          AuditableAccessor.NONE, AuditableAccessor.NONE, AuditableAccessor.NONE, false);
+    }
+    var entityType = annotation.entityType();
+    var auditableId = field(type, entry, AuditableId.class, AUDITABLE_ID);
+    return new AuditableMetadata(type, annotation,
+        auditableId == null
+            ? AuditableAccessor.NONE
+            : AuditableAccessors.forField(type, auditableId),
+        fieldAccessor(type, entry, AuditableName.class, AUDITABLE_NAME)
+            .orElse(methodAccessor(type, entry, AuditableName.class, AUDITABLE_NAME)),
+        StringUtils.EMPTY.equals(entityType)
+            ? methodAccessor(type, entry, AuditableType.class, AUDITABLE_TYPE)
+            : target -> entityType,
+        fieldAccessor(type, entry, Id.class, ID),
+        fieldAccessor(type, entry, LastModifiedDate.class, LAST_MODIFIED_DATE),
+        auditableId != null && isIntegral(auditableId.getType()));
+  }
+
+  public boolean isAuditable() {
+    return annotation != null;
+  }
+
+  /**
+   * Checks that the auditable entity has the members required by {@link AuditableEntity}.
+   * {@link Persistable} entities tell whether they are new themselves and need no
+   * {@link LastModifiedDate}.
+   *
+   * @throws AuditInitializationException if a required member is missing
+   */
+  public void validate() {
+    if (!isAuditable()) {
+      return;
+    }
+    validate(type, annotation, auditableId != AuditableAccessor.NONE,
+        lastModifiedDate != AuditableAccessor.NONE, auditableName != AuditableAccessor.NONE,
+        auditableType != AuditableAccessor.NONE);
+  }
+
+  /**
+   * Checks the members required by {@link AuditableEntity} like {@link #validate()} without
+   * building accessors. Members are taken from the index entry when present instead of scanning
+   * the class hierarchy, so the class does not need to be initialized.
+   *
+   * @throws AuditInitializationException if a required member is missing
+   */
+  public static void validate(Class<?> type, AuditableEntityIndex.Entry entry) {
+    var annotation = type.getAnnotation(AuditableEntity.class);
+    if (annotation == null) {
+      return;
+    }
+    validate(type, annotation,
+        hasField(type, entry, AuditableId.class, AUDITABLE_ID),
+        hasField(type, entry, LastModifiedDate.class, LAST_MODIFIED_DATE),
+        hasField(type, entry, AuditableName.class, AUDITABLE_NAME)
+            || hasMethod(type, entry, AuditableName.class, AUDITABLE_NAME),
+        hasMethod(type, entry, AuditableType.class, AUDITABLE_TYPE));
+  }
+
+  public String getEntityType(Object target) {
+    return toString(auditableType.get(target));
+  }
+
+  public String getId(Object target) {
+    return toString(auditableId.get(target));
+  }
+
+  public String getName(Object target) {
+    return toString(auditableName.get(target));
+  }
+
+  public boolean hasId() {
+    return id != AuditableAccessor.NONE;
+  }
+
+  public boolean hasLastModifiedDate() {
+    return lastModifiedDate != AuditableAccessor.NONE;
+  }
+
+  private static void validate(Class<?> type, AuditableEntity annotation, boolean auditableId,
+      boolean lastModifiedDate, boolean auditableName, boolean auditableType) {
+    require(type, auditableId, AuditableId.class);
+    if (!Persistable.class.isAssignableFrom(type)) {
+      require(type, lastModifiedDate, LastModifiedDate.class);
+    }
+    require(type, auditableName, AuditableName.class);
+    if (StringUtils.EMPTY.equals(annotation.entityType())) {
+      require(type, auditableType, AuditableType.class);
+    }
+  }
+
+  private static void require(Class<?> type, boolean present,
+      Class<? extends Annotation> required) {
+    if (!present) {
+      throw new AuditInitializationException(String.format(
+          "Annotation %s is required for %s entity, see %s java doc", required.getName(),
+          type.getName(), AuditableEntity.class.getName()));
+    }
+  }
+
+  private static boolean hasField(Class<?> type, AuditableEntityIndex.Entry entry,
+      Class<? extends Annotation> annotation, String role) {
+    return entry == null ? findField(type, annotation) != null : entry.field(role) != null;
+  }
+
+  private static boolean hasMethod(Class<?> type, AuditableEntityIndex.Entry entry,
+      Class<? extends Annotation> annotation, String role) {
+    return entry == null ? findMethod(type, annotation) != null : entry.method(role) != null;
+  }
+
+  private static String toString(Object value) {
+    return value == null ? null : value.toString();
+  }
+
+  private static AuditableAccessor fieldAccessor(Class<?> type, AuditableEntityIndex.Entry entry,
+      Class<? extends Annotation> annotation, String role) {
+    var field = field(type, entry, annotation, role);
+    return field == null ? AuditableAccessor.NONE : AuditableAccessors.forField(type, field);
+  }
+
+  private static Field field(Class<?> type, AuditableEntityIndex.Entry entry,
+      Class<? extends Annotation> annotation, String role) {
+    return entry == null ? findField(type, annotation) : getField(type, entry.field(role));
+  }
+
+  private static boolean isIntegral(Class<?> type) {
+    return type == long.class || type == int.class || type == short.class || type == byte.class
+        || type == Long.class || type == Integer.class || type == Short.class
+        || type == Byte.class;
+  }
+
+  private static AuditableAccessor methodAccessor(Class<?> type, AuditableEntityIndex.Entry entry,
+      Class<? extends Annotation> annotation, String role) {
+    var method = entry == null ? findMethod(type, annotation) : getMethod(type, entry.method(role));
+    return method == null ? AuditableAccessor.NONE : AuditableAccessors.forMethod(method);
+  }
+
+  private static Field findField(Class<?> type, Class<? extends Annotation> annotation) {
+    var fields = FieldUtils.getFieldsListWithAnnotation(type, annotation);
+    return fields.isEmpty() ? null : fields.get(0);
+  }
+
+  private static Method findMethod(Class<?> type, Class<? extends Annotation> annotation) {
+    var methods = MethodUtils.getMethodsListWithAnnotation(type, annotation);
+    return methods.isEmpty() ? null : methods.get(0);
+  }
+
+  private static Field getField(Class<?> type, String name) {
+    return name == null ? null : FieldUtils.getField(type, name, true);
+  }
+
+  private static Method getMethod(Class<?> type, String name) {
+    return name == null ? null : MethodUtils.getAccessibleMethod(type, name);
+  }
+}
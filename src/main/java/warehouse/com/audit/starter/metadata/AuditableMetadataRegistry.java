@@ -0,0 +1,50 @@
+package warehouse.com.audit.starter.metadata;
+
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps {@link AuditableMetadata} per class, metadata is built on the first access only. Classes
+ * of the {@link AuditableEntityIndex} are resolved from their index entry. Auditable classes
+ * missing from a non-empty index, e.g. outside the validated base package, are validated here.
+ */
+@Slf4j
+public class AuditableMetadataRegistry {
+
+  private final Map<Class<?>, AuditableMetadata> metadata = new ConcurrentHashMap<>();
+  private final AuditableEntityIndex index;
+
+  public AuditableMetadataRegistry() {
+    this(AuditableEntityIndex.load(AuditableMetadataRegistry.class.getClassLoader()));
+  }
+
+  public AuditableMetadataRegistry(AuditableEntityIndex index) {
+    this.index = index;
+  }
+
+  /**
+   * Returns metadata of the class, throws
+   * {@link warehouse.com.audit.starter.exception.AuditInitializationException} for an invalid
+   * auditable class missing from the index.
+   *
+   * @param type Entity class
+   */
+  public AuditableMetadata get(Class<?> type) {
+    var cached = metadata.get(type);
+    return cached != null ? cached : metadata.computeIfAbsent(type, this::resolve);
+  }
+
+  private AuditableMetadata resolve(Class<?> type) {
+    var entry = index.get(type.getName());
+    var resolved = AuditableMetadata.of(type, entry);
+    if (entry == null && resolved.isAuditable() && !index.isEmpty()) {
+      log.warn("Auditable entity is missing from the compile time index, check that the "
+          + "annotation processor runs for its module", keyValue("type", type.getName()));
+      resolved.validate();
+    }
+    return resolved;
+  }
+}
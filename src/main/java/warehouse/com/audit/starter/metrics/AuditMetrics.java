@@ -0,0 +1,177 @@
+package warehouse.com.audit.starter.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters of the audit starter. Meters are tagged by entity type, action or a fixed
+ * stage name only and are created once, recording looks them up without allocating. Without a
+ * {@link MeterRegistry} nothing is recorded.
+ */
+public class AuditMetrics {
+
+  public static final AuditMetrics NOOP = new AuditMetrics(null);
+
+  private static final String UNKNOWN = "unknown";
+
+  private final MeterRegistry registry;
+  private final Timer extraction;
+  private final Timer publish;
+  private final Timer saveAdvice;
+  private final Timer deleteAdvice;
+  private final Map<String, TypeMeters> types = new ConcurrentHashMap<>();
+
+  public AuditMetrics(MeterRegistry registry) {
+    this.registry = registry;
+    this.extraction = stageTimer("extraction");
+    this.publish = stageTimer("publish");
+    this.saveAdvice = adviceTimer("save");
+    this.deleteAdvice = adviceTimer("delete");
+  }
+
+  public void recordEvent(String entityType, String action, int entities) {
+    if (registry != null) {
+      var meters = typeMeters(entityType);
+      meters.entities.record(entities);
+      meters.events(action == null ? UNKNOWN : action).increment();
+    }
+  }
+
+  public void recordSuppressed(String entityType, String action) {
+    if (registry != null) {
+      typeMeters(entityType).suppressed(action == null ? UNKNOWN : action).increment();
+    }
+  }
+
+  public void recordDropped(String entityType) {
+    if (registry != null) {
+      typeMeters(entityType).dropped.increment();
+    }
+  }
+
+  public void recordFailure(String entityType) {
+    if (registry != null) {
+      typeMeters(entityType).failures.increment();
+    }
+  }
+
+  public void recordExtraction(long nanos) {
+    if (registry != null) {
+      extraction.record(nanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  public void recordPublish(long nanos) {
+    if (registry != null) {
+      publish.record(nanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  public void recordSaveAdvice(long nanos) {
+    if (registry != null) {
+      saveAdvice.record(nanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  public void recordDeleteAdvice(long nanos) {
+    if (registry != null) {
+      deleteAdvice.record(nanos, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  /**
+   * Registers the depth gauge of an audit queue.
+   *
+   * @param queue Queue name
+   * @param depth Current number of queued events
+   */
+  public void registerQueue(String queue, Supplier<Number> depth) {
+    if (registry != null) {
+      Gauge.builder("audit.queue.depth", depth)
+          .description("Audit events waiting to be published")
+          .tag("queue", queue)
+          .register(registry);
+    }
+  }
+
+  private Timer adviceTimer(String operation) {
+    return registry == null ? null : Timer.builder("audit.advice")
+        .description("Audit overhead of a repository call, excluding the call itself")
+        .tag("operation", operation)
+        .register(registry);
+  }
+
+  private Timer stageTimer(String stage) {
+    return registry == null ? null : Timer.builder("audit.stage")
+        .description("Time spent in audit event extraction and publishing")
+        .tag("stage", stage)
+        .register(registry);
+  }
+
+  private TypeMeters typeMeters(String entityType) {
+    var key = entityType == null ? UNKNOWN : entityType;
+    var meters = types.get(key);
+    return meters != null ? meters : types.computeIfAbsent(key, TypeMeters::new);
+  }
+
+  private final class TypeMeters {
+
+    private final String entityType;
+    private final DistributionSummary entities;
+    private final Counter failures;
+    private final Counter dropped;
+    private final Map<String, Counter> events = new ConcurrentHashMap<>();
+    private final Map<String, Counter> suppressed = new ConcurrentHashMap<>();
+
+    private TypeMeters(String entityType) {
+      this.entityType = entityType;
+      this.entities = DistributionSummary.builder("audit.event.entities")
+          .description("Number of entities in one audit event")
+          .tag("entityType", entityType)
+          .register(registry);
+      this.failures = Counter.builder("audit.publish.failures")
+          .description("Audit events that failed to publish")
+          .tag("entityType", entityType)
+          .register(registry);
+      this.dropped = Counter.builder("audit.events.dropped")
+          .description("Queued audit events dropped because the queue was full")
+          .tag("entityType", entityType)
+          .register(registry);
+    }
+
+    private Counter events(String action) {
+      var counter = events.get(action);
+      return counter != null ? counter : events.computeIfAbsent(action, this::eventCounter);
+    }
+
+    private Counter suppressed(String action) {
+      var counter = suppressed.get(action);
+      return counter != null
+          ? counter
+          : suppressed.computeIfAbsent(action, this::suppressedCounter);
+    }
+
+    private Counter suppressedCounter(String action) {
+      return Counter.builder("audit.events.suppressed")
+          .description("Audit events dropped by sampling policies per entity type and action")
+          .tag("entityType", entityType)
+          .tag("action", action)
+          .register(registry);
+    }
+
+    private Counter eventCounter(String action) {
+      return Counter.builder("audit.events")
+          .description("Audit events built per entity type and action")
+          .tag("entityType", entityType)
+          .tag("action", action)
+          .register(registry);
+    }
+  }
+}
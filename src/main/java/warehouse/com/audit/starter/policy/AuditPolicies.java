@@ -0,0 +1,224 @@
+package warehouse.com.audit.starter.policy;
+
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import warehouse.com.audit.starter.config.AuditProperties;
+
+/**
+ * Resolves the {@link AuditPolicy} of an entity type and action from the rules of
+ * {@code application.audit.policies} and its policy file, overriding the values of
+ * {@link warehouse.com.audit.starter.annotation.AuditableEntity} and
+ * {@link warehouse.com.audit.starter.annotation.AuditEvent} and limiting the published events at
+ * runtime.
+ * <p> Rules are compiled into an immutable lookup table that is swapped as a whole when the bound
+ * rule list is replaced, e.g. by a configuration properties rebind on refresh, when the policy
+ * file changes or on {@link #reload()}. Invalid rules are logged and the previous table stays in
+ * use. Limiters of unchanged sampling settings keep their state across reloads. </p>
+ */
+@Slf4j
+public class AuditPolicies implements DisposableBean {
+
+  private static final long NO_FILE = -1;
+
+  private final AuditProperties.Policies properties;
+  private final ScheduledExecutorService watcher;
+  private volatile Table table;
+
+  public AuditPolicies(AuditProperties.Policies properties) {
+    this.properties = properties;
+    var stamp = stamp(properties.getFile(), NO_FILE);
+    this.table = compile(properties.getRules(), properties.getFile(), stamp, Map.of());
+    if (properties.getFile() == null) {
+      this.watcher = null;
+    } else {
+      var threadFactory = new CustomizableThreadFactory("audit-policies-");
+      threadFactory.setDaemon(true);
+      this.watcher = Executors.newSingleThreadScheduledExecutor(threadFactory);
+      var interval = properties.getReloadInterval().toMillis();
+      this.watcher.scheduleWithFixedDelay(this::reload, interval, interval,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Returns the policy of events of an entity type and action.
+   *
+   * @param entityType Entity type of the event
+   * @param action     Action of the event as named by the annotation
+   */
+  public AuditPolicy resolve(String entityType, String action) {
+    var current = table;
+    if (current.source != properties.getRules()) {
+      current = refresh();
+    }
+    var type = entityType == null ? null : current.types.get(entityType);
+    if (type == null) {
+      return AuditPolicy.DEFAULT;
+    }
+    var policy = action == null ? null : type.byAction.get(action);
+    return policy == null ? type.any : policy;
+  }
+
+  /**
+   * Recompiles the rules if the bound rule list was replaced or the policy file changed. Invalid
+   * rules are logged and the previous ones stay in use.
+   */
+  public void reload() {
+    refresh();
+  }
+
+  @Override
+  public void destroy() {
+    if (watcher != null) {
+      watcher.shutdownNow();
+    }
+  }
+
+  private synchronized Table refresh() {
+    var current = table;
+    var source = properties.getRules();
+    var stamp = stamp(properties.getFile(), current.stamp);
+    if (current.source == source && current.stamp == stamp) {
+      return current;
+    }
+    try {
+      table = compile(source, properties.getFile(), stamp, current.limiters);
+      log.info("Audit policies reloaded", keyValue("rules", table.size));
+    } catch (RuntimeException e) {
+      table = new Table(source, stamp, current.types, current.limiters, current.size);
+      log.error("Audit policies are invalid, previous policies stay in use", e);
+    }
+    return table;
+  }
+
+  private static Table compile(List<AuditProperties.Rule> source, Path file, long stamp,
+      Map<LimiterKey, Limiter> previous) {
+    var rules = new ArrayList<>(source);
+    if (stamp != NO_FILE) {
+      rules.addAll(read(file));
+    }
+    var byType = new LinkedHashMap<String, List<AuditProperties.Rule>>();
+    for (AuditProperties.Rule rule : rules) {
+      if (StringUtils.isEmpty(rule.getEntityType())) {
+        throw new IllegalArgumentException("Audit policy rule requires an entity type");
+      }
+      byType.computeIfAbsent(rule.getEntityType(), key -> new ArrayList<>()).add(rule);
+    }
+    var types = new HashMap<String, TypePolicies>();
+    var limiters = new HashMap<LimiterKey, Limiter>();
+    byType.forEach((entityType, typeRules) -> {
+      var any = AuditPolicy.DEFAULT;
+      for (AuditProperties.Rule rule : typeRules) {
+        if (StringUtils.isEmpty(rule.getAction())) {
+          any = any.merge(rule, limiter(rule, previous, limiters));
+        }
+      }
+      var byAction = new HashMap<String, AuditPolicy>();
+      for (AuditProperties.Rule rule : typeRules) {
+        if (!StringUtils.isEmpty(rule.getAction())) {
+          byAction.put(rule.getAction(), byAction.getOrDefault(rule.getAction(), any)
+              .merge(rule, limiter(rule, previous, limiters)));
+        }
+      }
+      types.put(entityType, new TypePolicies(Map.copyOf(byAction), any));
+    });
+    return new Table(source, stamp, Map.copyOf(types), Map.copyOf(limiters), rules.size());
+  }
+
+  /**
+   * Returns the limiter of the sampling settings of the rule, the previous one if the same entity
+   * type and action had the same settings before.
+   */
+  private static Limiter limiter(AuditProperties.Rule rule, Map<LimiterKey, Limiter> previous,
+      Map<LimiterKey, Limiter> limiters) {
+    if (rule.getSampling() == null) {
+      return null;
+    }
+    var key = new LimiterKey(rule.getEntityType(), StringUtils.defaultString(rule.getAction()),
+        rule.getSampling());
+    return limiters.computeIfAbsent(key, k -> {
+      var kept = previous.get(k);
+      return kept == null ? Limiter.of(k.sampling()) : kept;
+    });
+  }
+
+  private static List<AuditProperties.Rule> read(Path file) {
+    var resource = new FileSystemResource(file);
+    var name = file.getFileName().toString();
+    Properties values;
+    if (name.endsWith(".yml") || name.endsWith(".yaml")) {
+      var yaml = new YamlPropertiesFactoryBean();
+      yaml.setResources(resource);
+      values = yaml.getObject();
+    } else {
+      try {
+        values = PropertiesLoaderUtils.loadProperties(resource);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Unable to read audit policy file " + file, e);
+      }
+    }
+    return new Binder(new MapConfigurationPropertySource(values))
+        .bind("rules", Bindable.listOf(AuditProperties.Rule.class))
+        .orElse(List.of());
+  }
+
+  /**
+   * Returns a value that changes with the modification time and size of the file.
+   *
+   * @param file     Policy file
+   * @param previous Value returned when the file attributes cannot be read
+   */
+  private static long stamp(Path file, long previous) {
+    if (file == null) {
+      return NO_FILE;
+    }
+    try {
+      var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      return attributes.lastModifiedTime().toMillis() * 31 + attributes.size() & Long.MAX_VALUE;
+    } catch (NoSuchFileException e) {
+      return NO_FILE;
+    } catch (IOException e) {
+      log.warn("Audit policy file could not be checked for changes", keyValue("file", file), e);
+      return previous;
+    }
+  }
+
+  private record Table(List<AuditProperties.Rule> source, long stamp,
+                       Map<String, TypePolicies> types, Map<LimiterKey, Limiter> limiters,
+                       int size) {
+
+  }
+
+  private record LimiterKey(String entityType, String action, AuditProperties.Sampling sampling) {
+
+  }
+
+  private record TypePolicies(Map<String, AuditPolicy> byAction, AuditPolicy any) {
+
+  }
+}
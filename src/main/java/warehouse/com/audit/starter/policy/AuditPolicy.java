@@ -0,0 +1,57 @@
+package warehouse.com.audit.starter.policy;
+
+import org.apache.commons.lang3.StringUtils;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.audit.starter.config.AuditProperties.PublishMode;
+
+/**
+ * Compiled policy of one entity type and action.
+ *
+ * @param enabled     Whether events are published
+ * @param action      Action name override or {@code null}
+ * @param publishMode Publish mode override or {@code null}
+ * @param limiter     Rate limit or sampling of the events or {@code null}
+ */
+public record AuditPolicy(boolean enabled, String action, PublishMode publishMode,
+                          Limiter limiter) {
+
+  public static final AuditPolicy DEFAULT = new AuditPolicy(true, null, null);
+
+  public AuditPolicy(boolean enabled, String action, PublishMode publishMode) {
+    this(enabled, action, publishMode, null);
+  }
+
+  /**
+   * Takes a rate limit or sampling permit for one event.
+   *
+   * @return {@code false} if the event has to be suppressed
+   */
+  public boolean tryAcquire() {
+    return limiter == null || limiter.tryAcquire(System.nanoTime());
+  }
+
+  /**
+   * Returns the action name of published events.
+   *
+   * @param action Action name given by the annotation
+   */
+  public String actionOr(String action) {
+    return this.action == null ? action : this.action;
+  }
+
+  /**
+   * Returns whether events are published after the surrounding transaction commits.
+   *
+   * @param afterCommit Application default
+   */
+  public boolean isPublishedAfterCommit(boolean afterCommit) {
+    return publishMode == null ? afterCommit : publishMode == PublishMode.AFTER_COMMIT;
+  }
+
+  AuditPolicy merge(AuditProperties.Rule rule, Limiter limiter) {
+    return new AuditPolicy(rule.getEnabled() == null ? enabled : rule.getEnabled(),
+        StringUtils.isEmpty(rule.getActionName()) ? action : rule.getActionName(),
+        rule.getPublishMode() == null ? publishMode : rule.getPublishMode(),
+        limiter == null ? this.limiter : limiter);
+  }
+}
@@ -0,0 +1,116 @@
+package warehouse.com.audit.starter.policy;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import warehouse.com.audit.starter.config.AuditProperties;
+
+/**
+ * Permit source of the sampling of one rule, safe for concurrent use without locks.
+ */
+abstract class Limiter {
+
+  static Limiter of(AuditProperties.Sampling sampling) {
+    return switch (sampling.getType()) {
+      case RATE_LIMIT -> new TokenBucket(sampling.getRate(), sampling.getBurst());
+      case SAMPLE -> new Sample(sampling.getProbability());
+      case FIRST_N -> new FirstInWindow(sampling.getLimit(), sampling.getWindow().toNanos());
+    };
+  }
+
+  /**
+   * Takes a permit.
+   *
+   * @param now Current {@link System#nanoTime()}
+   */
+  abstract boolean tryAcquire(long now);
+
+  /**
+   * Token bucket kept as the theoretical arrival time of the next event (GCRA), so a permit is one
+   * compare-and-set of a single long.
+   */
+  static final class TokenBucket extends Limiter {
+
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong arrival = new AtomicLong(Long.MIN_VALUE);
+
+    TokenBucket(double rate, int burst) {
+      if (rate <= 0 || burst < 1) {
+        throw new IllegalArgumentException(
+            "Audit rate limit requires a positive rate and a burst of at least 1");
+      }
+      this.interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+      this.tolerance = interval * (burst - 1);
+    }
+
+    @Override
+    boolean tryAcquire(long now) {
+      while (true) {
+        var current = arrival.get();
+        var start = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+        if (start - now > tolerance) {
+          return false;
+        }
+        if (arrival.compareAndSet(current, start + interval)) {
+          return true;
+        }
+      }
+    }
+  }
+
+  static final class Sample extends Limiter {
+
+    private final double probability;
+
+    Sample(double probability) {
+      if (probability < 0 || probability > 1) {
+        throw new IllegalArgumentException("Audit sampling probability must be between 0 and 1");
+      }
+      this.probability = probability;
+    }
+
+    @Override
+    boolean tryAcquire(long now) {
+      return probability >= 1 || ThreadLocalRandom.current().nextDouble() < probability;
+    }
+  }
+
+  /**
+   * Lets the first events of each fixed window through. The window number and the count of the
+   * current window are packed into one long.
+   */
+  static final class FirstInWindow extends Limiter {
+
+    private static final long COUNT_MASK = 0xFFFF_FFFFL;
+
+    private final int limit;
+    private final long window;
+    private final long origin = System.nanoTime();
+    private final AtomicLong state = new AtomicLong();
+
+    FirstInWindow(int limit, long window) {
+      if (limit < 0 || window <= 0) {
+        throw new IllegalArgumentException(
+            "Audit first-n policy requires a non-negative limit and a positive window");
+      }
+      this.limit = limit;
+      this.window = window;
+    }
+
+    @Override
+    boolean tryAcquire(long now) {
+      var number = (now - origin) / window;
+      while (true) {
+        var current = state.get();
+        var count = current >>> 32 == number ? current & COUNT_MASK : 0;
+        if (count >= limit) {
+          return false;
+        }
+        if (state.compareAndSet(current, number << 32 | count + 1)) {
+          return true;
+        }
+      }
+    }
+  }
+}
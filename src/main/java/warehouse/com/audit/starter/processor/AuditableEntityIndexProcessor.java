@@ -0,0 +1,156 @@
+package warehouse.com.audit.starter.processor;
+
+import static warehouse.com.audit.starter.metadata.AuditableEntityIndex.AUDITABLE_ID;
+import static warehouse.com.audit.starter.metadata.AuditableEntityIndex.AUDITABLE_NAME;
+import static warehouse.com.audit.starter.metadata.AuditableEntityIndex.AUDITABLE_TYPE;
+import static warehouse.com.audit.starter.metadata.AuditableEntityIndex.FIELD;
+import static warehouse.com.audit.starter.metadata.AuditableEntityIndex.ID;
+import static warehouse.com.audit.starter.metadata.AuditableEntityIndex.LAST_MODIFIED_DATE;
+import static warehouse.com.audit.starter.metadata.AuditableEntityIndex.LOCATION;
+import static warehouse.com.audit.starter.metadata.AuditableEntityIndex.METHOD;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes the {@link warehouse.com.audit.starter.metadata.AuditableEntityIndex} of the compiled
+ * {@code AuditableEntity} classes, so they do not have to be found by classpath scanning.
+ */
+@SupportedAnnotationTypes(AuditableEntityIndexProcessor.AUDITABLE_ENTITY)
+public class AuditableEntityIndexProcessor extends AbstractProcessor {
+
+  static final String AUDITABLE_ENTITY = "warehouse.com.audit.starter.annotation.AuditableEntity";
+
+  private static final String ANNOTATION_PACKAGE = "warehouse.com.audit.starter.annotation.";
+  private static final Map<String, String> FIELD_ROLES = Map.of(
+      ANNOTATION_PACKAGE + "AuditableId", AUDITABLE_ID,
+      ANNOTATION_PACKAGE + "AuditableName", AUDITABLE_NAME,
+      "org.springframework.data.annotation.Id", ID,
+      "org.springframework.data.annotation.LastModifiedDate", LAST_MODIFIED_DATE);
+  private static final Map<String, String> METHOD_ROLES = Map.of(
+      ANNOTATION_PACKAGE + "AuditableName", AUDITABLE_NAME,
+      ANNOTATION_PACKAGE + "AuditableType", AUDITABLE_TYPE);
+
+  private final Map<String, String> entries = new TreeMap<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (TypeElement annotation : annotations) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (element instanceof TypeElement type) {
+          var name = processingEnv.getElementUtils().getBinaryName(type).toString();
+          entries.put(name, describe(name, type));
+        }
+      }
+    }
+    if (roundEnv.processingOver() && !entries.isEmpty()) {
+      write();
+    }
+    return false;
+  }
+
+  private String describe(String name, TypeElement type) {
+    var line = new StringBuilder(name);
+    for (TypeElement current = type; current != null; current = superclass(current)) {
+      for (Element member : current.getEnclosedElements()) {
+        if (member.getKind() == ElementKind.FIELD) {
+          append(line, member, FIELD_ROLES, FIELD);
+        } else if (isPublicGetter(member)) {
+          append(line, member, METHOD_ROLES, METHOD);
+        }
+      }
+    }
+    return line.toString();
+  }
+
+  private void append(StringBuilder line, Element member, Map<String, String> roles,
+      String kind) {
+    for (var mirror : member.getAnnotationMirrors()) {
+      var annotation = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName();
+      var role = roles.get(annotation.toString());
+      if (role != null) {
+        line.append(' ').append(role).append('=').append(kind).append(':')
+            .append(member.getSimpleName());
+      }
+    }
+  }
+
+  private boolean isPublicGetter(Element member) {
+    return member.getKind() == ElementKind.METHOD
+        && member.getModifiers().contains(Modifier.PUBLIC)
+        && ((ExecutableElement) member).getParameters().isEmpty();
+  }
+
+  private TypeElement superclass(TypeElement type) {
+    var superclass = type.getSuperclass();
+    if (superclass.getKind() != TypeKind.DECLARED) {
+      return null;
+    }
+    var element = (TypeElement) ((DeclaredType) superclass).asElement();
+    return Object.class.getName().equals(element.getQualifiedName().toString()) ? null : element;
+  }
+
+  private void write() {
+    var filer = processingEnv.getFiler();
+    readPrevious();
+    try (var writer = new PrintWriter(filer
+        .createResource(StandardLocation.CLASS_OUTPUT, "", LOCATION)
+        .openWriter())) {
+      entries.values().forEach(writer::println);
+    } catch (IOException e) {
+      processingEnv.getMessager()
+          .printMessage(Kind.ERROR, "Unable to write " + LOCATION + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Keeps entries of an incremental build whose classes were not recompiled in this round.
+   */
+  private void readPrevious() {
+    try (var reader = new BufferedReader(new InputStreamReader(processingEnv.getFiler()
+        .getResource(StandardLocation.CLASS_OUTPUT, "", LOCATION)
+        .openInputStream(), StandardCharsets.UTF_8))) {
+      reader.lines()
+          .filter(line -> !line.isBlank())
+          .forEach(line -> {
+            var name = line.split("\\s+", 2)[0];
+            var element = processingEnv.getElementUtils().getTypeElement(name.replace('$', '.'));
+            if (element != null && isAuditableEntity(element)) {
+              entries.putIfAbsent(name, line);
+            }
+          });
+    } catch (IOException | IllegalArgumentException e) {
+      // no index from a previous build
+    }
+  }
+
+  private boolean isAuditableEntity(TypeElement element) {
+    return element.getAnnotationMirrors().stream()
+        .map(mirror -> ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName())
+        .anyMatch(name -> name.contentEquals(AUDITABLE_ENTITY));
+  }
+}
@@ -0,0 +1,155 @@
+package warehouse.com.audit.starter.publisher;
+
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.audit.starter.config.AuditProperties.OverflowPolicy;
+import warehouse.com.audit.starter.metrics.AuditMetrics;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+/**
+ * Publishes audit events from a bounded queue so the caller does not wait for
+ * {@link warehouse.com.eventstarter.service.EventService}. Queued events are drained on shutdown.
+ */
+@Slf4j
+public class AsyncAuditEventPublisher implements AuditEventPublisher, DisposableBean {
+
+  private static final String THREAD_PREFIX = "audit-publisher-";
+
+  private final AuditEventPublisher delegate;
+  private final ThreadPoolExecutor executor;
+  private final long shutdownTimeoutMillis;
+  private final AtomicLong dropped = new AtomicLong();
+  private final AuditMetrics metrics;
+
+  public AsyncAuditEventPublisher(AuditEventPublisher delegate, AuditProperties.Async properties,
+      AuditMetrics metrics) {
+    this.delegate = delegate;
+    this.metrics = metrics;
+    this.shutdownTimeoutMillis = properties.getShutdownTimeout().toMillis();
+    this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(),
+        0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+        threadFactory(properties.isVirtualThreads()),
+        overflowHandler(properties.getOverflow()));
+  }
+
+  @Override
+  public void publish(AuditEvent event) {
+    if (executor.isShutdown()) {
+      publishSafely(event);
+      return;
+    }
+    executor.execute(new PublishTask(event));
+  }
+
+  public int getQueueSize() {
+    return executor.getQueue().size();
+  }
+
+  public long getDroppedCount() {
+    return dropped.get();
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    executor.shutdown();
+    if (!executor.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+      var notPublished = executor.shutdownNow();
+      log.warn("Audit events were not published on shutdown",
+          keyValue("count", notPublished.size()));
+    }
+    if (delegate instanceof DisposableBean disposable) {
+      disposable.destroy();
+    }
+  }
+
+  private void publishSafely(AuditEvent event) {
+    try {
+      delegate.publish(event);
+    } catch (RuntimeException e) {
+      metrics.recordFailure(event.getEntityType());
+      log.error("Audit event publishing failed",
+          keyValue("entityType", event.getEntityType()),
+          keyValue("action", event.getAction()), e);
+    }
+  }
+
+  private RejectedExecutionHandler overflowHandler(OverflowPolicy overflow) {
+    var handler = rejectionHandler(overflow);
+    return (task, pool) -> {
+      if (pool.isShutdown()) {
+        task.run();
+      } else {
+        handler.rejectedExecution(task, pool);
+      }
+    };
+  }
+
+  private RejectedExecutionHandler rejectionHandler(OverflowPolicy overflow) {
+    return switch (overflow) {
+      case BLOCK -> (task, pool) -> {
+        try {
+          pool.getQueue().put(task);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new RejectedExecutionException("Interrupted while queueing audit event", e);
+        }
+      };
+      case DROP_OLDEST -> (task, pool) -> {
+        var oldest = (PublishTask) pool.getQueue().poll();
+        if (oldest != null) {
+          metrics.recordDropped(oldest.event.getEntityType());
+          if (dropped.incrementAndGet() % 1_000 == 1) {
+            log.warn("Audit queue is full, oldest events are dropped",
+                keyValue("dropped", dropped.get()));
+          }
+        }
+        pool.execute(task);
+      };
+      case CALLER_RUNS -> (task, pool) -> task.run();
+    };
+  }
+
+  private static ThreadFactory threadFactory(boolean virtualThreads) {
+    if (virtualThreads) {
+      try {
+        var builder = Thread.class.getMethod("ofVirtual").invoke(null);
+        var builderType = Class.forName("java.lang.Thread$Builder");
+        builder = builderType.getMethod("name", String.class, long.class)
+            .invoke(builder, THREAD_PREFIX, 0L);
+        return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+      } catch (ReflectiveOperationException e) {
+        log.warn("Virtual threads are not available, "
+            + "audit events are published on platform threads");
+      }
+    }
+    var threadFactory = new CustomizableThreadFactory(THREAD_PREFIX);
+    threadFactory.setDaemon(true);
+    return threadFactory;
+  }
+
+  private final class PublishTask implements Runnable {
+
+    private final AuditEvent event;
+
+    private PublishTask(AuditEvent event) {
+      this.event = event;
+    }
+
+    @Override
+    public void run() {
+      publishSafely(event);
+    }
+  }
+}
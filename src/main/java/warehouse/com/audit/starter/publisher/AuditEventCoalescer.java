@@ -0,0 +1,196 @@
+package warehouse.com.audit.starter.publisher;
+
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import warehouse.com.audit.starter.annotation.AuditableEntity;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+/**
+ * Merges consecutive events with the same action for the same {@code (entityType, id)} within the
+ * coalescing window of the entity type. The merged event keeps the last event details and describes
+ * how many events it replaces, when the first and the last of them happened, their event ids and
+ * descriptions. Events of several entities are not merged, held events of their entities are
+ * published before them so every entity keeps its order.
+ */
+@Slf4j
+public class AuditEventCoalescer implements DisposableBean {
+
+  private static final String DESCRIPTION = "%d %s events coalesced from %s to %s";
+
+  private final AuditEventPublisher publisher;
+  private final Map<String, Long> windows;
+  private final Map<Key, Pending> pending = new ConcurrentHashMap<>();
+  private final ScheduledThreadPoolExecutor scheduler;
+  private volatile boolean closed;
+
+  public AuditEventCoalescer(AuditEventPublisher publisher, AuditProperties.Coalesce properties) {
+    this.publisher = publisher;
+    this.windows = properties.getWindows().entrySet().stream()
+        .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> e.getValue().toNanos()));
+    var threadFactory = new CustomizableThreadFactory("audit-coalescer-");
+    threadFactory.setDaemon(true);
+    this.scheduler = new ScheduledThreadPoolExecutor(1, threadFactory);
+    this.scheduler.setRemoveOnCancelPolicy(true);
+  }
+
+  /**
+   * Holds the event back if its entity type is coalesced. Before an event that is not held back
+   * is returned to the caller, held events of its entities are published.
+   *
+   * @param event      Audit event
+   * @param annotation Annotation of the audited entity
+   * @return {@code false} if the event has to be published by the caller
+   */
+  public boolean offer(AuditEvent event, AuditableEntity annotation) {
+    var window = getWindow(event.getEntityType(), annotation);
+    if (window <= 0 || event.getEntities().size() != 1 || closed) {
+      flushEntities(event);
+      return false;
+    }
+    var key = new Key(event.getEntityType(), event.getEntities().iterator().next().getId());
+    var displaced = new ArrayList<Pending>(1);
+    var held = pending.compute(key, (k, current) -> {
+      if (current != null && current.action.equals(event.getAction())) {
+        current.merge(event);
+        return current;
+      }
+      if (current != null) {
+        displaced.add(current);
+      }
+      var next = new Pending(event);
+      schedule(k, next, window);
+      return next;
+    });
+    displaced.forEach(previous -> publisher.publish(previous.toEvent()));
+    if (closed) {
+      flush(key, held);
+    }
+    return true;
+  }
+
+  /**
+   * Stops holding events back and publishes the held ones. Events offered concurrently are either
+   * published here or by their caller.
+   */
+  @Override
+  public void destroy() {
+    closed = true;
+    scheduler.shutdownNow();
+    pending.forEach(this::flush);
+  }
+
+  private long getWindow(String entityType, AuditableEntity annotation) {
+    var window = entityType == null ? null : windows.get(entityType);
+    if (window != null) {
+      return window;
+    }
+    return annotation == null ? 0 : Duration.ofMillis(annotation.coalesceWindowMillis()).toNanos();
+  }
+
+  private void schedule(Key key, Pending next, long window) {
+    try {
+      scheduler.schedule(() -> flushExpired(key, next), window, TimeUnit.NANOSECONDS);
+    } catch (RejectedExecutionException e) {
+      // closed meanwhile, the caller publishes the held event
+    }
+  }
+
+  private void flushEntities(AuditEvent event) {
+    if (pending.isEmpty() || event.getEntities() == null) {
+      return;
+    }
+    for (AuditEvent.Entity entity : event.getEntities()) {
+      var key = new Key(event.getEntityType(), entity.getId());
+      var held = pending.get(key);
+      if (held != null) {
+        flush(key, held);
+      }
+    }
+  }
+
+  private void flushExpired(Key key, Pending expired) {
+    try {
+      flush(key, expired);
+    } catch (RuntimeException e) {
+      log.error("Coalesced audit event publishing failed",
+          keyValue("entityType", key.entityType()),
+          keyValue("id", key.id()), e);
+    }
+  }
+
+  private void flush(Key key, Pending expired) {
+    if (pending.remove(key, expired)) {
+      publisher.publish(expired.toEvent());
+    }
+  }
+
+  private record Key(String entityType, String id) {
+
+  }
+
+  private static final class Pending {
+
+    private final String action;
+    private final Date first;
+    private final List<String> eventIds = new ArrayList<>(1);
+    private final Set<String> descriptions = new LinkedHashSet<>(1);
+    private AuditEvent last;
+    private int count;
+
+    private Pending(AuditEvent event) {
+      this.action = event.getAction();
+      this.first = event.getTimestamp();
+      merge(event);
+    }
+
+    private void merge(AuditEvent event) {
+      if (event.getEventId() != null) {
+        eventIds.add(event.getEventId());
+      }
+      if (event.getDescription() != null) {
+        descriptions.add(event.getDescription());
+      }
+      last = event;
+      count++;
+    }
+
+    private AuditEvent toEvent() {
+      if (count == 1) {
+        return last;
+      }
+      var description = new StringBuilder(String.format(DESCRIPTION, count, action,
+          first.toInstant(), last.getTimestamp().toInstant()));
+      if (!eventIds.isEmpty()) {
+        description.append(" (events ").append(String.join(", ", eventIds)).append(')');
+      }
+      if (!descriptions.isEmpty()) {
+        description.append(": ").append(String.join("; ", descriptions));
+      }
+      return AuditEvent.builder()
+          .eventId(last.getEventId())
+          .action(last.getAction())
+          .entities(last.getEntities())
+          .entityType(last.getEntityType())
+          .initiatorId(last.getInitiatorId())
+          .description(description.toString())
+          .timestamp(last.getTimestamp())
+          .build();
+    }
+  }
+}
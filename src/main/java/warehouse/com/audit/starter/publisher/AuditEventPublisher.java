@@ -0,0 +1,12 @@
+package warehouse.com.audit.starter.publisher;
+
+import warehouse.com.eventstarter.model.AuditEvent;
+
+/**
+ * Hands built audit events over to {@link warehouse.com.eventstarter.service.EventService}.
+ */
+@FunctionalInterface
+public interface AuditEventPublisher {
+
+  void publish(AuditEvent event);
+}
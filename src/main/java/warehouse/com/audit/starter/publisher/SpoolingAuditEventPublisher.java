@@ -0,0 +1,180 @@
+package warehouse.com.audit.starter.publisher;
+
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.audit.starter.metrics.AuditMetrics;
+import warehouse.com.audit.starter.serializer.AuditEventFormat;
+import warehouse.com.audit.starter.serializer.AuditEventSerializer;
+import warehouse.com.audit.starter.serializer.BinaryAuditEventSerializer;
+import warehouse.com.audit.starter.serializer.CompressingAuditEventSerializer;
+import warehouse.com.audit.starter.serializer.JsonAuditEventSerializer;
+import warehouse.com.audit.starter.spool.AuditEventSpool;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+/**
+ * Writes audit events to a local {@link AuditEventSpool} and forwards them to the delegate from a
+ * background thread. Failed events are retried with exponential backoff, events that are still
+ * spooled on shutdown or after a crash are forwarded on the next start.
+ * <p> An event is committed once the delegate returns, so the delegate has to deliver it
+ * synchronously and throw when it is not delivered. Wrapping a queueing publisher would lose its
+ * queued events on a crash. </p>
+ * <p> Every record starts with the {@link AuditEventFormat} id of the serializer that wrote it.
+ * Records of the built-in formats are read by the built-in serializers, compressed or not, so
+ * events spooled before the configured serializer changed are still forwarded. </p>
+ */
+@Slf4j
+public class SpoolingAuditEventPublisher implements AuditEventPublisher, DisposableBean {
+
+  private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final AuditEventPublisher delegate;
+  private final AuditEventSpool spool;
+  private final AuditEventSerializer serializer;
+  private final Map<AuditEventFormat, AuditEventSerializer> readers =
+      new EnumMap<>(AuditEventFormat.class);
+  private final AuditMetrics metrics;
+  private final long initialBackoffMillis;
+  private final long maxBackoffMillis;
+  private final long shutdownTimeoutMillis;
+  private final Thread forwarder;
+  private volatile boolean running = true;
+  private volatile boolean idle;
+
+  public SpoolingAuditEventPublisher(AuditEventPublisher delegate,
+      AuditProperties.Spool properties, AuditEventSerializer serializer, AuditMetrics metrics) {
+    if (properties.getDirectory() == null || !properties.getDirectory().isAbsolute()) {
+      throw new IllegalArgumentException(
+          "Audit spool directory must be an absolute path of this instance only");
+    }
+    this.delegate = delegate;
+    this.serializer = serializer;
+    this.readers.put(AuditEventFormat.CUSTOM, serializer);
+    this.readers.put(AuditEventFormat.BINARY, new CompressingAuditEventSerializer(
+        new BinaryAuditEventSerializer(), new AuditProperties.Compression()));
+    this.readers.put(AuditEventFormat.JSON, new CompressingAuditEventSerializer(
+        new JsonAuditEventSerializer(), new AuditProperties.Compression()));
+    this.metrics = metrics;
+    this.initialBackoffMillis = properties.getRetryBackoff().toMillis();
+    this.maxBackoffMillis = properties.getMaxRetryBackoff().toMillis();
+    this.shutdownTimeoutMillis = properties.getShutdownTimeout().toMillis();
+    try {
+      this.spool = new AuditEventSpool(properties.getDirectory(),
+          (int) properties.getSegmentSize().toBytes(), properties.isForce());
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to open audit spool " + properties.getDirectory(), e);
+    }
+    this.forwarder = new Thread(this::forward, "audit-spool-forwarder");
+    this.forwarder.setDaemon(true);
+    this.forwarder.start();
+  }
+
+  @Override
+  public void publish(AuditEvent event) {
+    var payload = serializer.serialize(event);
+    var record = new byte[payload.length + 1];
+    record[0] = serializer.getFormat().getId();
+    System.arraycopy(payload, 0, record, 1, payload.length);
+    spool.append(record);
+    if (idle) {
+      LockSupport.unpark(forwarder);
+    }
+  }
+
+  public long getPendingCount() {
+    return spool.getPendingCount();
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    running = false;
+    LockSupport.unpark(forwarder);
+    forwarder.join(shutdownTimeoutMillis);
+    if (forwarder.isAlive()) {
+      forwarder.interrupt();
+      forwarder.join(shutdownTimeoutMillis);
+    }
+    if (forwarder.isAlive()) {
+      log.warn("Audit spool forwarder did not stop, closing the spool anyway",
+          keyValue("timeout", shutdownTimeoutMillis));
+    }
+    spool.close();
+    if (spool.getPendingCount() > 0) {
+      log.warn("Audit events stay spooled until the next start",
+          keyValue("count", spool.getPendingCount()));
+    }
+    if (delegate instanceof DisposableBean disposable) {
+      disposable.destroy();
+    }
+  }
+
+  private void forward() {
+    var backoff = initialBackoffMillis;
+    while (!Thread.currentThread().isInterrupted()) {
+      var record = spool.peek();
+      if (record == null) {
+        if (!running) {
+          return;
+        }
+        awaitRecord();
+        continue;
+      }
+      if (forward(record)) {
+        spool.commit();
+        backoff = initialBackoffMillis;
+      } else if (!sleep(backoff)) {
+        return;
+      } else {
+        backoff = Math.min(backoff * 2, maxBackoffMillis);
+      }
+    }
+  }
+
+  private boolean forward(byte[] record) {
+    AuditEvent event;
+    try {
+      event = readers.get(AuditEventFormat.of(record[0]))
+          .deserialize(Arrays.copyOfRange(record, 1, record.length));
+    } catch (RuntimeException e) {
+      log.error("Spooled audit event could not be read and is skipped", e);
+      return true;
+    }
+    try {
+      delegate.publish(event);
+      return true;
+    } catch (RuntimeException e) {
+      metrics.recordFailure(event.getEntityType());
+      log.warn("Audit event forwarding failed, it will be retried",
+          keyValue("entityType", event.getEntityType()),
+          keyValue("action", event.getAction()), e);
+      return false;
+    }
+  }
+
+  private void awaitRecord() {
+    idle = true;
+    if (spool.getPendingCount() == 0) {
+      LockSupport.parkNanos(this, IDLE_WAIT_NANOS);
+    }
+    idle = false;
+  }
+
+  private boolean sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
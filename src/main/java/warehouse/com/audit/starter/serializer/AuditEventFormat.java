@@ -0,0 +1,42 @@
+package warehouse.com.audit.starter.serializer;
+
+/**
+ * Payload format of an {@link AuditEventSerializer}, the id is stored with spooled events so they
+ * are read in their own format after the configured serializer changes.
+ */
+public enum AuditEventFormat {
+
+  /**
+   * Format of an application serializer, read by the configured serializer.
+   */
+  CUSTOM(0),
+
+  /**
+   * {@link BinaryAuditEventSerializer} payloads, compressed or not.
+   */
+  BINARY(1),
+
+  /**
+   * {@link JsonAuditEventSerializer} payloads, compressed or not.
+   */
+  JSON(2);
+
+  private final byte id;
+
+  AuditEventFormat(int id) {
+    this.id = (byte) id;
+  }
+
+  public byte getId() {
+    return id;
+  }
+
+  public static AuditEventFormat of(byte id) {
+    for (AuditEventFormat format : values()) {
+      if (format.id == id) {
+        return format;
+      }
+    }
+    throw new IllegalArgumentException("Unknown audit event format " + id);
+  }
+}
@@ -0,0 +1,28 @@
+package warehouse.com.audit.starter.serializer;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+/**
+ * Kafka value deserializer of audit events. When created by Kafka from the consumer configuration
+ * it reads {@link BinaryAuditEventSerializer} payloads, compressed or not.
+ */
+public class AuditEventKafkaDeserializer implements Deserializer<AuditEvent> {
+
+  private final AuditEventSerializer serializer;
+
+  public AuditEventKafkaDeserializer() {
+    this(new CompressingAuditEventSerializer(new BinaryAuditEventSerializer(),
+        new AuditProperties.Compression()));
+  }
+
+  public AuditEventKafkaDeserializer(AuditEventSerializer serializer) {
+    this.serializer = serializer;
+  }
+
+  @Override
+  public AuditEvent deserialize(String topic, byte[] payload) {
+    return payload == null ? null : serializer.deserialize(payload);
+  }
+}
@@ -0,0 +1,26 @@
+package warehouse.com.audit.starter.serializer;
+
+import org.apache.kafka.common.serialization.Serializer;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+/**
+ * Kafka value serializer of audit events, uses {@link BinaryAuditEventSerializer} when created by
+ * Kafka from the producer configuration.
+ */
+public class AuditEventKafkaSerializer implements Serializer<AuditEvent> {
+
+  private final AuditEventSerializer serializer;
+
+  public AuditEventKafkaSerializer() {
+    this(new BinaryAuditEventSerializer());
+  }
+
+  public AuditEventKafkaSerializer(AuditEventSerializer serializer) {
+    this.serializer = serializer;
+  }
+
+  @Override
+  public byte[] serialize(String topic, AuditEvent event) {
+    return event == null ? null : serializer.serialize(event);
+  }
+}
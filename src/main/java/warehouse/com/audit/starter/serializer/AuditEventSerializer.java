@@ -0,0 +1,45 @@
+package warehouse.com.audit.starter.serializer;
+
+import java.util.List;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+/**
+ * Converts audit events to bytes and back. Declare a bean of this type to replace the default
+ * {@link BinaryAuditEventSerializer}.
+ */
+public interface AuditEventSerializer {
+
+  /**
+   * Serializes events into one payload, implementations may share data between the events.
+   *
+   * @param events Audit events
+   */
+  byte[] serializeBatch(List<AuditEvent> events);
+
+  /**
+   * Reads events of a payload written by {@link #serializeBatch(List)}.
+   *
+   * @param payload Serialized events
+   */
+  List<AuditEvent> deserializeBatch(byte[] payload);
+
+  /**
+   * Returns the payload format, application serializers keep the {@link AuditEventFormat#CUSTOM}
+   * default.
+   */
+  default AuditEventFormat getFormat() {
+    return AuditEventFormat.CUSTOM;
+  }
+
+  default byte[] serialize(AuditEvent event) {
+    return serializeBatch(List.of(event));
+  }
+
+  default AuditEvent deserialize(byte[] payload) {
+    var events = deserializeBatch(payload);
+    if (events.size() != 1) {
+      throw new IllegalArgumentException("Payload has " + events.size() + " audit events");
+    }
+    return events.get(0);
+  }
+}
@@ -0,0 +1,462 @@
+package warehouse.com.audit.starter.serializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+/**
+ * Compact binary encoding of audit events.
+ * <ul>
+ *   <li>Numbers are unsigned LEB128 varints, signed values are zigzag encoded.</li>
+ *   <li>Entity type, action and initiator id are written once per payload and then referenced
+ *   by their index in a string dictionary.</li>
+ *   <li>Timestamps are deltas to the previous event of the payload.</li>
+ *   <li>Entities are sorted by id. Numeric ids are deltas to the previous numeric id, other ids
+ *   are written as the length of the prefix shared with the previous id and the rest.</li>
+ * </ul>
+ */
+public class BinaryAuditEventSerializer implements AuditEventSerializer {
+
+  private static final byte VERSION = 1;
+
+  private static final int NULL = 0;
+  private static final int LITERAL = 1;
+
+  private static final int TIMESTAMP = 1;
+  private static final int ENTITIES = 1 << 1;
+
+  private static final int MIN_EVENT_BYTES = 6;
+  private static final int MIN_ENTITY_BYTES = 2;
+
+  private static final int NULL_ID = 0;
+  private static final int NUMERIC_ID = 1;
+  private static final int STRING_ID = 2;
+  private static final int MAX_NUMERIC_ID_DIGITS = 18;
+  static final long NOT_NUMERIC = Long.MIN_VALUE;
+
+  @Override
+  public byte[] serializeBatch(List<AuditEvent> events) {
+    var writer = new Writer();
+    writer.writeByte(VERSION);
+    writer.writeVarInt(events.size());
+    for (AuditEvent event : events) {
+      writer.writeEvent(event);
+    }
+    return writer.toByteArray();
+  }
+
+  @Override
+  public AuditEventFormat getFormat() {
+    return AuditEventFormat.BINARY;
+  }
+
+  @Override
+  public List<AuditEvent> deserializeBatch(byte[] payload) {
+    var reader = new Reader(payload);
+    var version = reader.readByte();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported audit event version " + version);
+    }
+    var count = reader.readCount(MIN_EVENT_BYTES);
+    var events = new ArrayList<AuditEvent>(count);
+    for (int i = 0; i < count; i++) {
+      events.add(reader.readEvent());
+    }
+    return events;
+  }
+
+  /**
+   * Returns the id as a number when it is written in canonical decimal form.
+   *
+   * @return Id value or {@link #NOT_NUMERIC}
+   */
+  static long numericId(String id) {
+    var length = id.length();
+    if (length == 0 || length > MAX_NUMERIC_ID_DIGITS + 1) {
+      return NOT_NUMERIC;
+    }
+    var negative = id.charAt(0) == '-';
+    var start = negative ? 1 : 0;
+    var digits = length - start;
+    if (digits == 0 || digits > MAX_NUMERIC_ID_DIGITS
+        || id.charAt(start) == '0' && (digits > 1 || negative)) {
+      return NOT_NUMERIC;
+    }
+    var value = 0L;
+    for (int i = start; i < length; i++) {
+      var digit = id.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return NOT_NUMERIC;
+      }
+      value = value * 10 + digit;
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * Entity with its parsed id, ordered by null ids first, then numeric ids, then other ids.
+   */
+  private static final class SortedEntity implements Comparable<SortedEntity> {
+
+    private final AuditEvent.Entity entity;
+    private final int kind;
+    private final long number;
+
+    private SortedEntity(AuditEvent.Entity entity, long number) {
+      this.entity = entity;
+      this.kind = entity.getId() == null
+          ? NULL_ID
+          : number == NOT_NUMERIC ? STRING_ID : NUMERIC_ID;
+      this.number = number;
+    }
+
+    @Override
+    public int compareTo(SortedEntity other) {
+      if (kind != other.kind) {
+        return Integer.compare(kind, other.kind);
+      }
+      return switch (kind) {
+        case NUMERIC_ID -> Long.compare(number, other.number);
+        case STRING_ID -> entity.getId().compareTo(other.entity.getId());
+        default -> 0;
+      };
+    }
+  }
+
+  private static final class Writer {
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private byte[] buffer = new byte[256];
+    private int size;
+    private long timestamp;
+    private long numericId;
+    private String stringId = "";
+    private AuditEvent.Entity[] entityScratch = new AuditEvent.Entity[0];
+    private long[] numberScratch = new long[0];
+    private long[] keyScratch = new long[0];
+
+    private void writeEvent(AuditEvent event) {
+      var entities = event.getEntities();
+      writeByte((event.getTimestamp() == null ? 0 : TIMESTAMP)
+          | (entities == null ? 0 : ENTITIES));
+      writeString(event.getEventId());
+      writeDictionaryString(event.getEntityType());
+      writeDictionaryString(event.getAction());
+      writeDictionaryString(event.getInitiatorId());
+      writeString(event.getDescription());
+      if (event.getTimestamp() != null) {
+        var time = event.getTimestamp().getTime();
+        writeVarLong(zigzag(time - timestamp));
+        timestamp = time;
+      }
+      if (entities != null) {
+        writeEntities(entities);
+      }
+    }
+
+    private void writeEntities(Set<AuditEvent.Entity> entitySet) {
+      var count = entitySet.size();
+      writeVarInt(count);
+      if (entityScratch.length < count) {
+        entityScratch = new AuditEvent.Entity[count];
+        numberScratch = new long[count];
+      }
+      var entities = entitySet.toArray(entityScratch);
+      var numbers = numberScratch;
+      var min = Long.MAX_VALUE;
+      var max = Long.MIN_VALUE;
+      for (int i = 0; i < count; i++) {
+        var id = entities[i].getId();
+        numbers[i] = id == null ? NOT_NUMERIC : numericId(id);
+        min = Math.min(min, numbers[i]);
+        max = Math.max(max, numbers[i]);
+      }
+      if (min != NOT_NUMERIC && max - min <= Integer.MAX_VALUE) {
+        writeNumericEntities(entities, numbers, count, min);
+        return;
+      }
+      var sorted = new SortedEntity[count];
+      for (int i = 0; i < count; i++) {
+        sorted[i] = new SortedEntity(entities[i], numbers[i]);
+      }
+      Arrays.sort(sorted);
+      for (SortedEntity entity : sorted) {
+        writeId(entity.entity.getId(), entity.number);
+        writeString(entity.entity.getName());
+      }
+    }
+
+    /**
+     * Sorts entities with close numeric ids as primitives, the id offset is packed into the upper
+     * and the entity index into the lower half of a long.
+     */
+    private void writeNumericEntities(AuditEvent.Entity[] entities, long[] numbers, int count,
+        long min) {
+      if (keyScratch.length < count) {
+        keyScratch = new long[count];
+      }
+      var keys = keyScratch;
+      for (int i = 0; i < count; i++) {
+        keys[i] = (numbers[i] - min) << Integer.SIZE | i;
+      }
+      Arrays.sort(keys, 0, count);
+      for (int i = 0; i < count; i++) {
+        var index = (int) keys[i];
+        writeId(entities[index].getId(), numbers[index]);
+        writeString(entities[index].getName());
+      }
+    }
+
+    private void writeId(String id, long number) {
+      if (id == null) {
+        writeByte(NULL_ID);
+        return;
+      }
+      if (number != NOT_NUMERIC) {
+        writeByte(NUMERIC_ID);
+        writeVarLong(zigzag(number - numericId));
+        numericId = number;
+        return;
+      }
+      var prefix = sharedPrefix(stringId, id);
+      writeByte(STRING_ID);
+      writeVarInt(prefix);
+      writeUtf8(id, prefix, 0);
+      stringId = id;
+    }
+
+    private void writeDictionaryString(String value) {
+      if (value == null) {
+        writeVarInt(NULL);
+        return;
+      }
+      var index = dictionary.get(value);
+      if (index != null) {
+        writeVarInt(index + 2);
+        return;
+      }
+      dictionary.put(value, dictionary.size());
+      writeVarInt(LITERAL);
+      writeUtf8(value, 0, 0);
+    }
+
+    private void writeString(String value) {
+      if (value == null) {
+        writeVarInt(NULL);
+      } else {
+        writeUtf8(value, 0, 1);
+      }
+    }
+
+    /**
+     * Writes the UTF-8 length of the string from the index plus the bias and its bytes. ASCII
+     * strings are copied without an intermediate byte array.
+     */
+    private void writeUtf8(String value, int from, int bias) {
+      var length = value.length();
+      for (int i = from; i < length; i++) {
+        if (value.charAt(i) >= 0x80) {
+          var bytes = value.substring(from).getBytes(StandardCharsets.UTF_8);
+          writeVarInt(bytes.length + bias);
+          writeRaw(bytes);
+          return;
+        }
+      }
+      writeVarInt(length - from + bias);
+      ensureCapacity(length - from);
+      for (int i = from; i < length; i++) {
+        buffer[size++] = (byte) value.charAt(i);
+      }
+    }
+
+    private void writeRaw(byte[] bytes) {
+      ensureCapacity(bytes.length);
+      System.arraycopy(bytes, 0, buffer, size, bytes.length);
+      size += bytes.length;
+    }
+
+    private void writeByte(int value) {
+      ensureCapacity(1);
+      buffer[size++] = (byte) value;
+    }
+
+    private void writeVarInt(int value) {
+      writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    private void writeVarLong(long value) {
+      ensureCapacity(10);
+      while ((value & ~0x7FL) != 0) {
+        buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      buffer[size++] = (byte) value;
+    }
+
+    private void ensureCapacity(int length) {
+      if (size + length > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+      }
+    }
+
+    private byte[] toByteArray() {
+      return Arrays.copyOf(buffer, size);
+    }
+
+    private static int sharedPrefix(String previous, String id) {
+      var max = Math.min(previous.length(), id.length());
+      var prefix = 0;
+      while (prefix < max && previous.charAt(prefix) == id.charAt(prefix)) {
+        prefix++;
+      }
+      if (prefix > 0 && Character.isHighSurrogate(id.charAt(prefix - 1))) {
+        prefix--;
+      }
+      return prefix;
+    }
+
+    private static long zigzag(long value) {
+      return (value << 1) ^ (value >> 63);
+    }
+  }
+
+  private static final class Reader {
+
+    private final List<String> dictionary = new ArrayList<>();
+    private final byte[] buffer;
+    private int position;
+    private long timestamp;
+    private long numericId;
+    private String stringId = "";
+
+    private Reader(byte[] buffer) {
+      this.buffer = buffer;
+    }
+
+    private AuditEvent readEvent() {
+      var flags = readByte();
+      var builder = AuditEvent.builder()
+          .eventId(readString())
+          .entityType(readDictionaryString())
+          .action(readDictionaryString())
+          .initiatorId(readDictionaryString())
+          .description(readString());
+      if ((flags & TIMESTAMP) != 0) {
+        timestamp += unzigzag(readVarLong());
+        builder.timestamp(new Date(timestamp));
+      }
+      if ((flags & ENTITIES) != 0) {
+        var count = readCount(MIN_ENTITY_BYTES);
+        var entities = new HashSet<AuditEvent.Entity>(Math.max(count * 4 / 3 + 1, 16));
+        for (int i = 0; i < count; i++) {
+          entities.add(AuditEvent.Entity.builder()
+              .id(readId())
+              .name(readString())
+              .build());
+        }
+        builder.entities(entities);
+      }
+      return builder.build();
+    }
+
+    private String readId() {
+      var kind = readByte();
+      return switch (kind) {
+        case NULL_ID -> null;
+        case NUMERIC_ID -> {
+          numericId += unzigzag(readVarLong());
+          yield Long.toString(numericId);
+        }
+        case STRING_ID -> {
+          var prefix = readVarInt();
+          if (prefix < 0 || prefix > stringId.length()) {
+            throw new IllegalArgumentException("Malformed audit entity id in payload");
+          }
+          stringId = stringId.substring(0, prefix) + readBytes();
+          yield stringId;
+        }
+        default -> throw new IllegalArgumentException("Unknown audit entity id kind " + kind);
+      };
+    }
+
+    private String readDictionaryString() {
+      var code = readVarInt();
+      if (code == NULL) {
+        return null;
+      }
+      if (code == LITERAL) {
+        var value = readBytes();
+        dictionary.add(value);
+        return value;
+      }
+      if (code < 0 || code - 2 >= dictionary.size()) {
+        throw new IllegalArgumentException("Unknown audit event string reference " + code);
+      }
+      return dictionary.get(code - 2);
+    }
+
+    private String readString() {
+      var length = readVarInt();
+      return length == NULL ? null : readUtf8(length - 1);
+    }
+
+    private String readBytes() {
+      return readUtf8(readVarInt());
+    }
+
+    private String readUtf8(int length) {
+      if (length < 0 || position + length > buffer.length) {
+        throw new IllegalArgumentException("Audit event payload is truncated");
+      }
+      var value = new String(buffer, position, length, StandardCharsets.UTF_8);
+      position += length;
+      return value;
+    }
+
+    /**
+     * Reads the number of the following items, each taking at least the given number of bytes,
+     * so a malformed count is rejected before anything is allocated for it.
+     */
+    private int readCount(int minBytes) {
+      var count = readVarLong();
+      if (count < 0 || count > (buffer.length - position) / minBytes) {
+        throw new IllegalArgumentException("Audit event payload is truncated");
+      }
+      return (int) count;
+    }
+
+    private int readByte() {
+      if (position >= buffer.length) {
+        throw new IllegalArgumentException("Audit event payload is truncated");
+      }
+      return buffer[position++];
+    }
+
+    private int readVarInt() {
+      return (int) readVarLong();
+    }
+
+    private long readVarLong() {
+      var value = 0L;
+      for (int shift = 0; shift < Long.SIZE; shift += 7) {
+        var b = readByte();
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IllegalArgumentException("Malformed varint in audit event payload");
+    }
+
+    private static long unzigzag(long value) {
+      return (value >>> 1) ^ -(value & 1);
+    }
+  }
+}
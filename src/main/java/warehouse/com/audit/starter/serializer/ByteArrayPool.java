@@ -0,0 +1,33 @@
+package warehouse.com.audit.starter.serializer;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded pool of byte arrays reused as scratch buffers. Arrays larger than the maximum size are
+ * not pooled.
+ */
+class ByteArrayPool {
+
+  private final BlockingQueue<byte[]> arrays;
+  private final int maxArraySize;
+
+  ByteArrayPool(int capacity, int maxArraySize) {
+    this.arrays = new ArrayBlockingQueue<>(capacity);
+    this.maxArraySize = maxArraySize;
+  }
+
+  /**
+   * Returns a pooled array of at least the given size or a new one.
+   */
+  byte[] acquire(int minSize) {
+    var array = arrays.poll();
+    return array != null && array.length >= minSize ? array : new byte[minSize];
+  }
+
+  void release(byte[] array) {
+    if (array.length <= maxArraySize) {
+      arrays.offer(array);
+    }
+  }
+}
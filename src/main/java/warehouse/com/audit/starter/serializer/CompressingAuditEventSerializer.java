@@ -0,0 +1,113 @@
+package warehouse.com.audit.starter.serializer;
+
+import java.util.Arrays;
+import java.util.List;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+/**
+ * Compresses payloads of the delegate serializer that reach the size threshold.
+ * <p> A compressed payload starts with a header of the {@link #MAGIC} byte, the
+ * {@link CompressionCodec} id and the uncompressed length as a 4-byte big-endian int, so
+ * consumers can tell compressed and plain payloads apart. Other payloads are written and read
+ * without the header, unless they start with the {@link #MAGIC} byte themselves. Uncompressed
+ * lengths above the configured maximum are rejected before anything is allocated for them.
+ * Compression buffers are pooled. </p>
+ */
+public class CompressingAuditEventSerializer implements AuditEventSerializer {
+
+  public static final byte MAGIC = (byte) 0xAC;
+  public static final int HEADER_BYTES = 2 + Integer.BYTES;
+
+  private static final int POOL_CAPACITY = 2 * Runtime.getRuntime().availableProcessors();
+  private static final int MAX_POOLED_BUFFER = 16 * 1024 * 1024;
+
+  private final AuditEventSerializer delegate;
+  private final CompressionCodec codec;
+  private final long threshold;
+  private final int level;
+  private final long maxDecompressedSize;
+  private final ByteArrayPool buffers = new ByteArrayPool(POOL_CAPACITY, MAX_POOLED_BUFFER);
+
+  public CompressingAuditEventSerializer(AuditEventSerializer delegate,
+      AuditProperties.Compression properties) {
+    this.delegate = delegate;
+    this.codec = properties.getCodec();
+    this.threshold = properties.getThreshold().toBytes();
+    this.level = properties.getLevel();
+    this.maxDecompressedSize = properties.getMaxDecompressedSize().toBytes();
+  }
+
+  @Override
+  public byte[] serialize(AuditEvent event) {
+    return compress(delegate.serialize(event));
+  }
+
+  @Override
+  public byte[] serializeBatch(List<AuditEvent> events) {
+    return compress(delegate.serializeBatch(events));
+  }
+
+  @Override
+  public AuditEventFormat getFormat() {
+    return delegate.getFormat();
+  }
+
+  @Override
+  public AuditEvent deserialize(byte[] payload) {
+    return delegate.deserialize(decompress(payload));
+  }
+
+  @Override
+  public List<AuditEvent> deserializeBatch(byte[] payload) {
+    return delegate.deserializeBatch(decompress(payload));
+  }
+
+  private byte[] compress(byte[] body) {
+    if (codec != CompressionCodec.NONE && body.length >= threshold) {
+      var buffer = buffers.acquire(codec.maxCompressedLength(body.length));
+      try {
+        var length = codec.compress(body, buffer, 0, level);
+        if (length < body.length) {
+          return frame(codec, body.length, buffer, length);
+        }
+      } finally {
+        buffers.release(buffer);
+      }
+    }
+    return body.length > 0 && body[0] == MAGIC
+        ? frame(CompressionCodec.NONE, body.length, body, body.length)
+        : body;
+  }
+
+  private byte[] frame(CompressionCodec used, int originalLength, byte[] body, int length) {
+    var payload = new byte[HEADER_BYTES + length];
+    payload[0] = MAGIC;
+    payload[1] = used.getId();
+    payload[2] = (byte) (originalLength >>> 24);
+    payload[3] = (byte) (originalLength >>> 16);
+    payload[4] = (byte) (originalLength >>> 8);
+    payload[5] = (byte) originalLength;
+    System.arraycopy(body, 0, payload, HEADER_BYTES, length);
+    return payload;
+  }
+
+  private byte[] decompress(byte[] payload) {
+    if (payload.length < HEADER_BYTES || payload[0] != MAGIC) {
+      return payload;
+    }
+    var used = CompressionCodec.of(payload[1]);
+    if (used == CompressionCodec.NONE) {
+      return Arrays.copyOfRange(payload, HEADER_BYTES, payload.length);
+    }
+    var length = (payload[2] & 0xFF) << 24 | (payload[3] & 0xFF) << 16
+        | (payload[4] & 0xFF) << 8 | payload[5] & 0xFF;
+    if (length < 0 || length > maxDecompressedSize) {
+      throw new IllegalArgumentException("Audit event uncompressed length " + length
+          + " is out of range, the maximum is " + maxDecompressedSize);
+    }
+    var body = new byte[length];
+    used.decompress(payload, HEADER_BYTES, payload.length - HEADER_BYTES, body);
+    return body;
+  }
+}
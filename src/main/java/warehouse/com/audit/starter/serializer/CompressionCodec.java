@@ -0,0 +1,139 @@
+package warehouse.com.audit.starter.serializer;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdException;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+/**
+ * Compression of serialized audit events, the id is written into the payload header.
+ */
+public enum CompressionCodec {
+
+  NONE(0) {
+    @Override
+    int maxCompressedLength(int length) {
+      return length;
+    }
+
+    @Override
+    int compress(byte[] source, byte[] target, int targetOffset, int level) {
+      System.arraycopy(source, 0, target, targetOffset, source.length);
+      return source.length;
+    }
+
+    @Override
+    void decompress(byte[] source, int offset, int length, byte[] target) {
+      checkLength(length, target);
+      System.arraycopy(source, offset, target, 0, length);
+    }
+  },
+
+  /**
+   * LZ4 block compression, the level is ignored.
+   */
+  LZ4(1) {
+    @Override
+    int maxCompressedLength(int length) {
+      return Lz4.COMPRESSOR.maxCompressedLength(length);
+    }
+
+    @Override
+    int compress(byte[] source, byte[] target, int targetOffset, int level) {
+      return Lz4.COMPRESSOR.compress(source, 0, source.length, target, targetOffset,
+          target.length - targetOffset);
+    }
+
+    @Override
+    void decompress(byte[] source, int offset, int length, byte[] target) {
+      try {
+        checkLength(Lz4.DECOMPRESSOR.decompress(source, offset, length, target, 0), target);
+      } catch (LZ4Exception e) {
+        throw new IllegalArgumentException("LZ4 failed: " + e.getMessage(), e);
+      }
+    }
+  },
+
+  /**
+   * Zstandard frame compression at the configured level.
+   */
+  ZSTD(2) {
+    @Override
+    int maxCompressedLength(int length) {
+      return (int) Zstd.compressBound(length);
+    }
+
+    @Override
+    int compress(byte[] source, byte[] target, int targetOffset, int level) {
+      return check(Zstd.compressByteArray(target, targetOffset, target.length - targetOffset,
+          source, 0, source.length, level));
+    }
+
+    @Override
+    void decompress(byte[] source, int offset, int length, byte[] target) {
+      try {
+        checkLength(check(Zstd.decompressByteArray(target, 0, target.length, source, offset,
+            length)), target);
+      } catch (ZstdException e) {
+        throw new IllegalArgumentException("Zstd failed: " + e.getMessage(), e);
+      }
+    }
+
+    private int check(long result) {
+      if (Zstd.isError(result)) {
+        throw new IllegalArgumentException("Zstd failed: " + Zstd.getErrorName(result));
+      }
+      return (int) result;
+    }
+  };
+
+  private final byte id;
+
+  CompressionCodec(int id) {
+    this.id = (byte) id;
+  }
+
+  public byte getId() {
+    return id;
+  }
+
+  public static CompressionCodec of(byte id) {
+    for (CompressionCodec codec : values()) {
+      if (codec.id == id) {
+        return codec;
+      }
+    }
+    throw new IllegalArgumentException("Unknown audit event compression " + id);
+  }
+
+  abstract int maxCompressedLength(int length);
+
+  /**
+   * Compresses the source into the target from the offset.
+   *
+   * @return Compressed length
+   */
+  abstract int compress(byte[] source, byte[] target, int targetOffset, int level);
+
+  /**
+   * Decompresses the source range, the target has the exact original length. Malformed sources
+   * throw {@link IllegalArgumentException}.
+   */
+  abstract void decompress(byte[] source, int offset, int length, byte[] target);
+
+  private static void checkLength(int length, byte[] target) {
+    if (length != target.length) {
+      throw new IllegalArgumentException("Decompressed audit event has " + length
+          + " bytes instead of " + target.length);
+    }
+  }
+
+  private static final class Lz4 {
+
+    private static final LZ4Compressor COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4SafeDecompressor DECOMPRESSOR =
+        LZ4Factory.fastestInstance().safeDecompressor();
+  }
+}
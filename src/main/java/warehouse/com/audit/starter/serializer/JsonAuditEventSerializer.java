@@ -0,0 +1,69 @@
+package warehouse.com.audit.starter.serializer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+/**
+ * JSON encoding of audit events with Jackson, the format events are published in by default.
+ */
+public class JsonAuditEventSerializer implements AuditEventSerializer {
+
+  private final ObjectMapper objectMapper;
+  private final JavaType batchType;
+
+  public JsonAuditEventSerializer() {
+    this(new ObjectMapper());
+  }
+
+  public JsonAuditEventSerializer(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+    this.batchType = objectMapper.getTypeFactory()
+        .constructCollectionType(List.class, AuditEvent.class);
+  }
+
+  @Override
+  public byte[] serialize(AuditEvent event) {
+    try {
+      return objectMapper.writeValueAsBytes(event);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Unable to serialize audit event", e);
+    }
+  }
+
+  @Override
+  public AuditEvent deserialize(byte[] payload) {
+    try {
+      return objectMapper.readValue(payload, AuditEvent.class);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to deserialize audit event", e);
+    }
+  }
+
+  @Override
+  public AuditEventFormat getFormat() {
+    return AuditEventFormat.JSON;
+  }
+
+  @Override
+  public byte[] serializeBatch(List<AuditEvent> events) {
+    try {
+      return objectMapper.writerFor(batchType).writeValueAsBytes(events);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Unable to serialize audit events", e);
+    }
+  }
+
+  @Override
+  public List<AuditEvent> deserializeBatch(byte[] payload) {
+    try {
+      return objectMapper.readValue(payload, batchType);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to deserialize audit events", e);
+    }
+  }
+}
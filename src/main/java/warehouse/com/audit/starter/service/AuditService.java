@@ -3,27 +3,41 @@ package warehouse.com.audit.starter.service;
 import static net.logstash.logback.argument.StructuredArguments.keyValue;
 import static warehouse.com.audit.starter.common.Constants.DEFAULT_INITIATOR_ID;
 
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
+import com.google.common.collect.Sets;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.beanutils.PropertyUtils;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
-import org.apache.commons.lang3.reflect.MethodUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.repository.core.EntityInformation;
 import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
 import warehouse.com.audit.starter.annotation.AuditableEntity;
-import warehouse.com.audit.starter.annotation.AuditableId;
-import warehouse.com.audit.starter.annotation.AuditableName;
-import warehouse.com.audit.starter.annotation.AuditableType;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.audit.starter.metadata.AuditableMetadata;
+import warehouse.com.audit.starter.metadata.AuditableMetadataRegistry;
+import warehouse.com.audit.starter.metrics.AuditMetrics;
+import warehouse.com.audit.starter.policy.AuditPolicies;
+import warehouse.com.audit.starter.policy.AuditPolicy;
+import warehouse.com.audit.starter.publisher.AuditEventCoalescer;
+import warehouse.com.audit.starter.publisher.AuditEventPublisher;
 import warehouse.com.eventstarter.model.AuditEvent;
 import warehouse.com.eventstarter.service.EventService;
 
@@ -32,7 +46,82 @@ import warehouse.com.eventstarter.service.EventService;
 @Service
 public class AuditService {
 
+  private static final int ENTITY_OVERHEAD_BYTES = 24;
+
   private final EventService eventService;
+  private final AuditableMetadataRegistry metadataRegistry = new AuditableMetadataRegistry();
+  private AuditEventPublisher publisher;
+  private AuditEventCoalescer coalescer;
+  private AuditProperties properties = new AuditProperties();
+  private AuditMetrics metrics = AuditMetrics.NOOP;
+  private ExtractionPool extractionPool;
+  private AuditPolicies policies;
+  private volatile EntityInformationLookup entityInformation =
+      new EntityInformationLookup(Map.of());
+
+  @Autowired(required = false)
+  public void setProperties(AuditProperties properties) {
+    this.properties = properties;
+  }
+
+  /**
+   * Overrides how events are handed over to {@link EventService}, by default they are published
+   * synchronously on the caller thread.
+   *
+   * @param publisher Audit event publisher
+   */
+  @Autowired(required = false)
+  public void setPublisher(AuditEventPublisher publisher) {
+    this.publisher = publisher;
+  }
+
+  @Autowired(required = false)
+  public void setMetrics(AuditMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Enables coalescing of repeated events of the same entity.
+   *
+   * @param coalescer Audit event coalescer
+   */
+  @Autowired(required = false)
+  public void setCoalescer(AuditEventCoalescer coalescer) {
+    this.coalescer = coalescer;
+  }
+
+  /**
+   * Lets {@link #isNew(Object)} ask Spring Data whether entities of the domain types and their
+   * subclasses, e.g. proxies, are new.
+   *
+   * @param entityInformation Entity information of repository domain types
+   */
+  public void setEntityInformation(Map<Class<?>, EntityInformation<?, ?>> entityInformation) {
+    this.entityInformation = new EntityInformationLookup(entityInformation);
+  }
+
+  /**
+   * Enables runtime overrides of enablement, action names and publish mode, rate limiting and
+   * sampling per entity type and action. Events are limited before their entities are read.
+   *
+   * @param policies Audit policies
+   */
+  @Autowired(required = false)
+  public void setPolicies(AuditPolicies policies) {
+    this.policies = policies;
+  }
+
+  /**
+   * Enables parallel extraction of the entities of collections above
+   * {@code application.audit.parallel.threshold} elements. Their events are equal to those of a
+   * sequential extraction.
+   *
+   * @param extractionPool Extraction pool
+   */
+  @Autowired(required = false)
+  public void setExtractionPool(ExtractionPool extractionPool) {
+    this.extractionPool = extractionPool;
+  }
 
   /**
    * Sends audit event to kafka.
@@ -58,6 +147,10 @@ public class AuditService {
   /**
    * This method has been added to track audit events with a manually specified initiator id and
    * description.
+   * <p> Collections are read lazily and split into events of at most
+   * {@code application.audit.chunk.max-entities} entities or {@code max-size} bytes. Chunks of one
+   * collection share a correlation id, their event id is {@code <correlationId>:<sequence>} and the
+   * last one is marked as {@code <correlationId>:<sequence>:last}. </p>
    *
    * @param auditable   Auditable entity or collection of entities
    * @param action      Action name
@@ -67,17 +160,83 @@ public class AuditService {
   public void sendAuditEvent(Object auditable, String action, String initiatorId,
       String description) {
 
-    getAuditables(auditable)
-        .map(entities -> getAuditEvent(entities, action, initiatorId, description))
-        .ifPresent(event -> {
-          eventService.publish(event);
-          log.debug("Audit event published",
-              keyValue("entityType", event.getEntityType()),
-              keyValue("action", event.getAction()),
-              keyValue("eventId", event.getEventId()));
+    var iterator = getIterator(auditable);
+    var first = iterator.hasNext() ? iterator.next() : null;
+    if (first == null || !getMetadata(first).isAuditable()) {
+      return;
+    }
+    if (extractionPool != null && auditable instanceof Collection<?> collection
+        && extractionPool.accepts(collection.size())) {
+      sendParallel(first, collection, action, initiatorId, description);
+    } else {
+      sendChunks(first, iterator, size(auditable), action, initiatorId, description, null);
+    }
+  }
+
+  /**
+   * Sends audit event with the changed fields of the entities. Each chunk gets a description like
+   * {@code <id>: <field>, <field>; <id>: <field>} listing its changed entities.
+   *
+   * @param auditable Auditable entity or collection of entities
+   * @param action    Action name
+   * @param changes   Identity map of entities to their changed field names, may be {@code null}
+   */
+  public void sendChangeEvent(Object auditable, String action,
+      Map<Object, List<String>> changes) {
+    var iterator = getIterator(auditable);
+    var first = iterator.hasNext() ? iterator.next() : null;
+    if (first != null && getMetadata(first).isAuditable()) {
+      sendChunks(first, iterator, size(auditable), action, null, null, changes);
+    }
+  }
+
+  /**
+   * Returns a stream that sends audit events of its elements while they are consumed, in chunks
+   * like {@link #sendAuditEvent(Object, String, String, String)}. At most one chunk of entities is
+   * held at a time. The last chunk is sent when the stream is exhausted or closed, entities
+   * consumed before a short-circuiting operation are sent on close only.
+   *
+   * @param stream Stream of auditable entities
+   * @param action Action name
+   */
+  public <T> Stream<T> auditStream(Stream<T> stream, String action) {
+    var spliterator = stream.spliterator();
+    var recorder = new Recorder(action, spliterator.getExactSizeIfKnown());
+    return StreamSupport.stream(new AuditingSpliterator<>(spliterator, recorder), false)
+        .onClose(() -> {
+          try {
+            stream.close();
+          } finally {
+            recorder.finish();
+          }
         });
   }
 
+  /**
+   * Returns an iterator that sends audit events of its elements while they are consumed, the
+   * last chunk is sent when {@link Iterator#hasNext()} returns {@code false}.
+   *
+   * @param iterator Iterator of auditable entities
+   * @param action   Action name
+   */
+  public <T> Iterator<T> auditIterator(Iterator<T> iterator, String action) {
+    return new AuditingIterator<>(iterator, new Recorder(action, -1));
+  }
+
+  /**
+   * Returns an iterable whose first iterator is audited like
+   * {@link #auditIterator(Iterator, String)}, later iterations are not audited again.
+   *
+   * @param iterable Iterable of auditable entities
+   * @param action   Action name
+   */
+  public <T> Iterable<T> auditIterable(Iterable<T> iterable, String action) {
+    var audited = new AtomicBoolean();
+    return () -> audited.compareAndSet(false, true)
+        ? auditIterator(iterable.iterator(), action)
+        : iterable.iterator();
+  }
+
   public Optional<List<Object>> getAuditables(Object auditEntity) {
 
     return Optional.ofNullable(auditEntity)
@@ -85,82 +244,560 @@ public class AuditService {
         .filter(this::hasAnyEntitiesAnnotatedByAuditableEntity);
   }
 
+  /**
+   * Checks whether the entity or the first element of a collection is auditable without copying
+   * the collection.
+   *
+   * @param auditEntity Entity or collection of entities
+   */
+  public boolean isAuditable(Object auditEntity) {
+    var first = auditEntity instanceof Iterable<?> iterable ? getFirst(iterable) : auditEntity;
+    return first != null && getMetadata(first).isAuditable();
+  }
+
+  /**
+   * Checks whether the entity was not saved yet. {@link Persistable#isNew()} decides when
+   * implemented. Otherwise the entity is new if the entity information of its repository says so,
+   * or if its id or last modified date is not set. Spring Data entity information reports an
+   * entity with an application assigned id and no version property as existing, so the last
+   * modified date still tells such an entity apart.
+   *
+   * @param auditable Auditable entity
+   */
+  @SuppressWarnings("unchecked")
+  public boolean isNew(Object auditable) {
+    if (auditable instanceof Persistable<?> persistable) {
+      return persistable.isNew();
+    }
+    var information = (EntityInformation<Object, ?>) entityInformation.get(auditable.getClass());
+    if (information != null && information.isNew(auditable)) {
+      return true;
+    }
+    var metadata = getMetadata(auditable);
+    return metadata.hasLastModifiedDate() && metadata.getLastModifiedDate().get(auditable) == null
+        || metadata.hasId() && metadata.getId().get(auditable) == null;
+  }
+
   public AuditableEntity getAnnotation(Object object) {
-    return object.getClass().getAnnotation(AuditableEntity.class);
+    return getMetadata(object).getAnnotation();
+  }
+
+  /**
+   * Returns cached audit metadata of the object class.
+   *
+   * @param object Auditable entity
+   */
+  public AuditableMetadata getMetadata(Object object) {
+    return metadataRegistry.get(object.getClass());
+  }
+
+  /**
+   * Returns cached audit metadata of the class.
+   *
+   * @param type Entity class
+   */
+  public AuditableMetadata getMetadata(Class<?> type) {
+    return metadataRegistry.get(type);
   }
 
   private List<Object> getList(Object entity) {
+    if (entity instanceof List) {
+      return (List<Object>) entity;
+    }
     return entity instanceof Iterable
         ? Lists.newArrayList((Iterable<Object>) entity)
         : List.of(entity);
   }
 
-  private AuditEvent getAuditEvent(List<Object> auditables, String action, String initiatorId,
-      String description) {
-    var entityType = StringUtils.EMPTY.equals(getAnnotation(auditables.get(0)).entityType())
-        ? invokeMethodByAnnotation(auditables.get(0), AuditableType.class)
-        : getAnnotation(auditables.get(0)).entityType();
+  private long size(Object auditable) {
+    if (auditable instanceof Collection<?> collection) {
+      return collection.size();
+    }
+    return auditable instanceof Iterable<?> ? -1 : 1;
+  }
+
+  private Object getFirst(Iterable<?> iterable) {
+    if (iterable instanceof List<?> list) {
+      return list.isEmpty() ? null : list.get(0);
+    }
+    var iterator = iterable.iterator();
+    return iterator.hasNext() ? iterator.next() : null;
+  }
+
+  private Iterator<?> getIterator(Object auditable) {
+    if (auditable == null) {
+      return Collections.emptyIterator();
+    }
+    return auditable instanceof Iterable<?> iterable
+        ? iterable.iterator()
+        : Iterators.singletonIterator(auditable);
+  }
+
+  private void sendChunks(Object first, Iterator<?> iterator, long size, String action,
+      String initiatorId, String description, Map<Object, List<String>> changes) {
+    var chunks = openChunks(first, size, action, initiatorId, description, changes);
+    if (chunks == null) {
+      return;
+    }
+    var start = System.nanoTime();
+    for (Object next = first; next != null; next = nextAuditable(iterator)) {
+      chunks.add(next);
+    }
+    chunks.finish();
+    metrics.recordExtraction(System.nanoTime() - start - chunks.publishNanos);
+  }
 
-    return AuditEvent.builder()
-        .action(action)
-        .entities(auditables.stream().map(this::getEntity).collect(Collectors.toSet()))
+  private void sendParallel(Object first, Collection<?> auditables, String action,
+      String initiatorId, String description) {
+    var chunks = openChunks(first, auditables.size(), action, initiatorId, description, null);
+    if (chunks == null) {
+      return;
+    }
+    var start = System.nanoTime();
+    chunks.addAll(auditables.toArray());
+    chunks.finish();
+    metrics.recordExtraction(System.nanoTime() - start - chunks.publishNanos);
+  }
+
+  private Chunks openChunks(Object first, long size, String action, String initiatorId,
+      String description, Map<Object, List<String>> changes) {
+    var metadata = getMetadata(first);
+    var entityType = metadata.getEntityType(first);
+    var policy = policies == null ? AuditPolicy.DEFAULT : policies.resolve(entityType, action);
+    if (!policy.enabled() || !policy.tryAcquire()) {
+      metrics.recordSuppressed(entityType, action);
+      return null;
+    }
+    var template = AuditEvent.builder()
+        .action(policy.actionOr(action))
         .entityType(entityType)
         .initiatorId(initiatorId)
         .description(description)
-        .timestamp(new Date())
-        .build();
+        .timestamp(new Date());
+    TransactionalAuditEvents.Group group = null;
+    if (policy.isPublishedAfterCommit(properties.isPublishAfterCommit())) {
+      var transactional = TransactionalAuditEvents.current(this::sendCommitted);
+      group = transactional == null ? null : transactional.group(metadata, template.build());
+    }
+    return new Chunks(metadata, template, size, description, changes, group);
+  }
+
+  /**
+   * Sends the entities collected in a transaction, chunked like the entities of one call.
+   */
+  private void sendCommitted(TransactionalAuditEvents.Group group) {
+    var latest = group.getLatest();
+    var template = AuditEvent.builder()
+        .action(latest.getAction())
+        .entityType(latest.getEntityType())
+        .initiatorId(latest.getInitiatorId())
+        .description(latest.getDescription())
+        .timestamp(latest.getTimestamp());
+    var changes = group.getChanges();
+    var chunks = new Chunks(group.getMetadata(), template, group.getEntities().size(),
+        latest.getDescription(), changes, null);
+    for (AuditEvent.Entity entity : group.getEntities()) {
+      chunks.accept(entity, null, changes == null ? null : changes.get(entity));
+    }
+    chunks.finish();
+  }
+
+  private void appendChanges(StringBuilder changed, AuditEvent.Entity entity,
+      List<String> fields) {
+    if (fields == null || fields.isEmpty()) {
+      return;
+    }
+    if (!changed.isEmpty()) {
+      changed.append("; ");
+    }
+    changed.append(entity.getId()).append(": ").append(String.join(", ", fields));
+  }
+
+  private String describe(String description, StringBuilder changed) {
+    if (changed.isEmpty()) {
+      return description;
+    }
+    return description == null ? changed.toString() : description + " " + changed;
+  }
+
+  private Object nextAuditable(Iterator<?> iterator) {
+    while (iterator.hasNext()) {
+      var next = iterator.next();
+      if (next != null) {
+        return next;
+      }
+    }
+    return null;
+  }
+
+  private long estimateSize(AuditEvent.Entity entity) {
+    return ENTITY_OVERHEAD_BYTES
+        + (entity.getId() == null ? 0 : entity.getId().length())
+        + (entity.getName() == null ? 0 : entity.getName().length());
+  }
+
+  private long dispatch(AuditEvent event, AuditableEntity annotation) {
+    metrics.recordEvent(event.getEntityType(), event.getAction(), event.getEntities().size());
+    if (coalescer != null && coalescer.offer(event, annotation)) {
+      return 0;
+    }
+    var start = System.nanoTime();
+    publish(event);
+    var elapsed = System.nanoTime() - start;
+    metrics.recordPublish(elapsed);
+    log.debug("Audit event published",
+        keyValue("entityType", event.getEntityType()),
+        keyValue("action", event.getAction()),
+        keyValue("eventId", event.getEventId()));
+    return elapsed;
+  }
+
+  private void publish(AuditEvent event) {
+    try {
+      if (publisher == null) {
+        eventService.publish(event);
+      } else {
+        publisher.publish(event);
+      }
+    } catch (RuntimeException e) {
+      metrics.recordFailure(event.getEntityType());
+      throw e;
+    }
   }
 
   private boolean hasAnyEntitiesAnnotatedByAuditableEntity(List<Object> auditables) {
     return auditables.stream()
         .findFirst()
-        .map(auditable -> auditable.getClass()
-            .isAnnotationPresent(AuditableEntity.class))
+        .map(auditable -> getMetadata(auditable).isAuditable())
         .orElse(false);
   }
 
-  private AuditEvent.Entity getEntity(Object auditable) {
+  private AuditEvent.Entity getEntity(AuditableMetadata metadata, Object auditable) {
     return AuditEvent.Entity.builder()
-        .id(getFieldValueByAnnotation(auditable, AuditableId.class))
-        .name(Optional.ofNullable(getFieldValueByAnnotation(auditable, AuditableName.class))
-            .orElseGet(() -> invokeMethodByAnnotation(auditable, AuditableName.class)))
+        .id(metadata.getId(auditable))
+        .name(metadata.getName(auditable))
         .build();
   }
 
-  private String invokeMethodByAnnotation(Object object,
-      Class<? extends Annotation> annotationType) {
-    return MethodUtils.getMethodsListWithAnnotation(object.getClass(), annotationType).stream()
-        .findFirst()
-        .map(method -> invokeMethod(object, method))
-        .map(Object::toString)
-        .orElse(null);
-  }
+  /**
+   * Entities of one call split into events. A full chunk is published when the next entity
+   * arrives, so the chunk published by {@link #finish()} is known to be the last one. Chunk sets
+   * are sized for the remaining entities when their number is known, elements of the first
+   * element class reuse its metadata. Entities with a numeric {@code AuditableId} are kept in an
+   * {@link EntityIdSet} looked up by id. A chunk is full by the number of its distinct entities
+   * or by the estimated size of all entities added to it. Entities published after commit are
+   * collected in the group of the transaction instead, and chunked when the transaction commits.
+   */
+  private final class Chunks {
+
+    private final AuditableMetadata metadata;
+    private final AuditEvent.AuditEventBuilder template;
+    private final String description;
+    private final Map<Object, List<String>> changes;
+    private final StringBuilder changed;
+    private final TransactionalAuditEvents.Group group;
+    private final int maxEntities = properties.getChunk().getMaxEntities();
+    private final long maxBytes = properties.getChunk().getMaxSize().toBytes();
+    private long remaining;
+    private Set<AuditEvent.Entity> entities;
+    private long bytes;
+    private String correlationId;
+    private int sequence;
+    private long publishNanos;
+
+    private Chunks(AuditableMetadata metadata, AuditEvent.AuditEventBuilder template, long size,
+        String description, Map<Object, List<String>> changes,
+        TransactionalAuditEvents.Group group) {
+      this.metadata = metadata;
+      this.template = template;
+      this.remaining = size;
+      this.entities = newChunk();
+      this.description = description;
+      this.changes = changes;
+      this.changed = changes == null ? null : new StringBuilder();
+      this.group = group;
+    }
+
+    private void add(Object auditable) {
+      var entityMetadata = metadataOf(auditable);
+      var fields = changes == null ? null : changes.get(auditable);
+      if (entityMetadata.isNumericId()
+          && entityMetadata.getAuditableId().get(auditable) instanceof Number id) {
+        accept(AuditEvent.Entity.builder()
+            .id(Long.toString(id.longValue()))
+            .name(entityMetadata.getName(auditable))
+            .build(), id, fields);
+      } else {
+        accept(getEntity(entityMetadata, auditable), null, fields);
+      }
+    }
+
+    /**
+     * Adds an extracted entity to the current chunk or to the transaction group.
+     *
+     * @param entity Entity
+     * @param id     Numeric id of the entity, {@code null} if not known
+     * @param fields Changed fields of the entity, may be {@code null}
+     */
+    private void accept(AuditEvent.Entity entity, Number id, List<String> fields) {
+      if (group != null) {
+        group.add(entity, fields);
+        return;
+      }
+      if (isFull()) {
+        publishChunk();
+        entities = newChunk();
+        bytes = 0;
+      }
+      if (id != null && entities instanceof EntityIdSet ids) {
+        ids.add(id.longValue(), entity);
+      } else {
+        entities.add(entity);
+      }
+      bytes += estimateSize(entity);
+      if (changed != null) {
+        appendChanges(changed, entity, fields);
+      }
+    }
+
+    /**
+     * Adds the elements like {@link #add(Object)}, their entities are extracted on the extraction
+     * pool and added in element order, so the chunks equal those of a sequential extraction. Null
+     * elements are skipped.
+     */
+    private void addAll(Object[] auditables) {
+      var extracted = new AuditEvent.Entity[auditables.length];
+      extractionPool.forEach(auditables.length, (from, to) -> {
+        for (int i = from; i < to; i++) {
+          if (auditables[i] != null) {
+            extracted[i] = extract(auditables[i]);
+          }
+        }
+      });
+      for (AuditEvent.Entity entity : extracted) {
+        if (entity != null) {
+          accept(entity, null, null);
+        }
+      }
+    }
+
+    private boolean isFull() {
+      return entities.size() >= maxEntities || bytes >= maxBytes;
+    }
+
+    private AuditEvent.Entity extract(Object auditable) {
+      return getEntity(metadataOf(auditable), auditable);
+    }
+
+    private AuditableMetadata metadataOf(Object auditable) {
+      return auditable.getClass() == metadata.getType() ? metadata : getMetadata(auditable);
+    }
+
+    private void publishChunk() {
+      correlationId = correlationId == null ? UUID.randomUUID().toString() : correlationId;
+      if (changed != null) {
+        template.description(describe(description, changed));
+        changed.setLength(0);
+      }
+      publishNanos += dispatch(
+          template.entities(entities).eventId(correlationId + ":" + sequence++).build(),
+          metadata.getAnnotation());
+    }
 
-  @SneakyThrows
-  private Object invokeMethod(Object object, Method method) {
-    return method == null ? null : method.invoke(object);
+    private Set<AuditEvent.Entity> newChunk() {
+      if (remaining < 0) {
+        return newSet(-1);
+      }
+      var expected = (int) Math.min(remaining, maxEntities);
+      remaining -= expected;
+      return newSet(expected);
+    }
+
+    /**
+     * Creates the entity set of a chunk, entities with a numeric id are told apart by the id.
+     *
+     * @param expected Expected number of entities or {@code -1} if unknown
+     */
+    private Set<AuditEvent.Entity> newSet(int expected) {
+      if (metadata.isNumericId()) {
+        return new EntityIdSet(expected);
+      }
+      return expected < 0 ? new HashSet<>() : Sets.newHashSetWithExpectedSize(expected);
+    }
+
+    private void finish() {
+      if (group != null) {
+        return;
+      }
+      template.entities(entities);
+      if (changed != null) {
+        template.description(describe(description, changed));
+      }
+      if (correlationId != null) {
+        template.eventId(correlationId + ":" + sequence + ":last");
+      }
+      publishNanos += dispatch(template.build(), metadata.getAnnotation());
+    }
   }
 
-  private String getFieldValueByAnnotation(Object object,
-      Class<? extends Annotation> annotationType) {
-    return FieldUtils.getFieldsListWithAnnotation(object.getClass(), annotationType).stream()
-        .findFirst()
-        .map(field -> getFieldValue(object, field))
-        .map(Object::toString)
-        .orElse(null);
+  /**
+   * Sends the events of a consumed sequence, chunks are opened by its first non-null element.
+   */
+  private final class Recorder {
+
+    private final String action;
+    private final long size;
+    private Chunks chunks;
+    private boolean started;
+    private boolean finished;
+
+    private Recorder(String action, long size) {
+      this.action = action;
+      this.size = size;
+    }
+
+    private void record(Object element) {
+      if (element == null || finished) {
+        return;
+      }
+      if (!started) {
+        started = true;
+        chunks = getMetadata(element).isAuditable()
+            ? openChunks(element, size, action, null, null, null)
+            : null;
+      }
+      if (chunks != null) {
+        chunks.add(element);
+      }
+    }
+
+    private void finish() {
+      if (!finished) {
+        finished = true;
+        if (chunks != null) {
+          chunks.finish();
+        }
+      }
+    }
   }
 
-  private Object getFieldValue(Object object, Field field) {
-    return getFieldValueByName(object, field.getName());
+  private static final class AuditingIterator<T> implements Iterator<T> {
 
+    private final Iterator<T> delegate;
+    private final Recorder recorder;
+
+    private AuditingIterator(Iterator<T> delegate, Recorder recorder) {
+      this.delegate = delegate;
+      this.recorder = recorder;
+    }
+
+    @Override
+    public boolean hasNext() {
+      var hasNext = delegate.hasNext();
+      if (!hasNext) {
+        recorder.finish();
+      }
+      return hasNext;
+    }
+
+    @Override
+    public T next() {
+      var next = delegate.next();
+      recorder.record(next);
+      return next;
+    }
+
+    @Override
+    public void remove() {
+      delegate.remove();
+    }
   }
 
-  @SneakyThrows
-  private Object getFieldValueByName(Object object, String name) {
-    try {
-      return PropertyUtils.getProperty(object, name);
-    } catch (NoSuchMethodException e) {
+  /**
+   * Records elements on their way to the consumer. Splitting is not supported, so parallel
+   * pipelines consume the source sequentially.
+   */
+  private static final class AuditingSpliterator<T> implements Spliterator<T>, Consumer<T> {
+
+    private final Spliterator<T> delegate;
+    private final Recorder recorder;
+    private Consumer<? super T> consumer;
+
+    private AuditingSpliterator(Spliterator<T> delegate, Recorder recorder) {
+      this.delegate = delegate;
+      this.recorder = recorder;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+      consumer = action;
+      var advanced = delegate.tryAdvance(this);
+      if (!advanced) {
+        recorder.finish();
+      }
+      return advanced;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+      consumer = action;
+      delegate.forEachRemaining(this);
+      recorder.finish();
+    }
+
+    @Override
+    public void accept(T element) {
+      recorder.record(element);
+      consumer.accept(element);
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
       return null;
     }
+
+    @Override
+    public long estimateSize() {
+      return delegate.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+      return delegate.characteristics() & ~(SUBSIZED | CONCURRENT);
+    }
+  }
+
+  /**
+   * Entity information of repository domain types, resolved once per runtime class by its user
+   * class and superclasses.
+   */
+  private static final class EntityInformationLookup {
+
+    private final Map<Class<?>, EntityInformation<?, ?>> byDomainType;
+    private final Map<Class<?>, Optional<EntityInformation<?, ?>>> byClass =
+        new ConcurrentHashMap<>();
+
+    private EntityInformationLookup(Map<Class<?>, EntityInformation<?, ?>> byDomainType) {
+      this.byDomainType = Map.copyOf(byDomainType);
+    }
+
+    private EntityInformation<?, ?> get(Class<?> type) {
+      if (byDomainType.isEmpty()) {
+        return null;
+      }
+      var cached = byClass.get(type);
+      return (cached != null ? cached : byClass.computeIfAbsent(type, this::resolve)).orElse(null);
+    }
+
+    private Optional<EntityInformation<?, ?>> resolve(Class<?> type) {
+      for (Class<?> current = ClassUtils.getUserClass(type); current != null;
+          current = current.getSuperclass()) {
+        var information = byDomainType.get(current);
+        if (information != null) {
+          return Optional.of(information);
+        }
+      }
+      return Optional.empty();
+    }
   }
 }
@@ -0,0 +1,244 @@
+package warehouse.com.audit.starter.service;
+
+import com.google.common.primitives.Longs;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+/**
+ * Set of the entities of one audit event, equal like {@link AuditEvent.Entity} by id and name but
+ * looked up by their numeric id. Entities and their ids are kept in dense arrays indexed by an
+ * open addressing table of array positions, so an added entity costs one array slot, one
+ * primitive id and one table slot, and neither its id nor its name string is hashed. Entities
+ * whose id is not a number are kept in a plain hash set. A removed entity is replaced by the last
+ * one in the arrays.
+ */
+final class EntityIdSet extends AbstractSet<AuditEvent.Entity> {
+
+  private static final int MIN_CAPACITY = 4;
+
+  private AuditEvent.Entity[] entities;
+  private long[] ids;
+  private int[] table;
+  private int size;
+  private Set<AuditEvent.Entity> others;
+
+  EntityIdSet(int expected) {
+    var capacity = Math.max(expected, MIN_CAPACITY);
+    this.entities = new AuditEvent.Entity[capacity];
+    this.ids = new long[capacity];
+    this.table = new int[tableSize(capacity)];
+  }
+
+  /**
+   * Adds the entity unless an entity with the same id and name was added before.
+   *
+   * @param id     Numeric id of the entity
+   * @param entity Entity with the id as its string id
+   */
+  boolean add(long id, AuditEvent.Entity entity) {
+    var mask = table.length - 1;
+    var index = index(id, mask);
+    for (int position; (position = table[index]) != 0; index = (index + 1) & mask) {
+      if (ids[position - 1] == id && sameName(entities[position - 1], entity)) {
+        return false;
+      }
+    }
+    if (size == entities.length) {
+      grow();
+      return add(id, entity);
+    }
+    entities[size] = entity;
+    ids[size] = id;
+    table[index] = ++size;
+    return true;
+  }
+
+  @Override
+  public boolean add(AuditEvent.Entity entity) {
+    var id = parse(entity.getId());
+    if (id != null) {
+      return add(id, entity);
+    }
+    if (others == null) {
+      others = new HashSet<>();
+    }
+    return others.add(entity);
+  }
+
+  @Override
+  public boolean contains(Object object) {
+    if (!(object instanceof AuditEvent.Entity entity)) {
+      return false;
+    }
+    var id = parse(entity.getId());
+    if (id == null) {
+      return others != null && others.contains(entity);
+    }
+    return find(id, entity) >= 0;
+  }
+
+  @Override
+  public boolean remove(Object object) {
+    if (!(object instanceof AuditEvent.Entity entity)) {
+      return false;
+    }
+    var id = parse(entity.getId());
+    if (id == null) {
+      return others != null && others.remove(entity);
+    }
+    var index = find(id, entity);
+    if (index < 0) {
+      return false;
+    }
+    removePosition(table[index] - 1);
+    return true;
+  }
+
+  @Override
+  public Iterator<AuditEvent.Entity> iterator() {
+    return new EntityIterator();
+  }
+
+  @Override
+  public int size() {
+    return others == null ? size : size + others.size();
+  }
+
+  /**
+   * Returns the table index of the entity, {@code -1} if it is not in the set.
+   */
+  private int find(long id, AuditEvent.Entity entity) {
+    var mask = table.length - 1;
+    for (int index = index(id, mask), position; (position = table[index]) != 0;
+        index = (index + 1) & mask) {
+      if (ids[position - 1] == id && entities[position - 1].equals(entity)) {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Removes the entity at the array position, the table entries of the following entities of its
+   * probe sequence are shifted back and the last entity is moved to the freed position.
+   */
+  private void removePosition(int position) {
+    var mask = table.length - 1;
+    var free = slotOf(position);
+    for (int index = (free + 1) & mask; table[index] != 0; index = (index + 1) & mask) {
+      var home = index(ids[table[index] - 1], mask);
+      if (free <= index ? home <= free || home > index : home <= free && home > index) {
+        table[free] = table[index];
+        free = index;
+      }
+    }
+    table[free] = 0;
+    var last = --size;
+    if (position != last) {
+      table[slotOf(last)] = position + 1;
+      entities[position] = entities[last];
+      ids[position] = ids[last];
+    }
+    entities[last] = null;
+  }
+
+  private int slotOf(int position) {
+    var mask = table.length - 1;
+    var index = index(ids[position], mask);
+    while (table[index] != position + 1) {
+      index = (index + 1) & mask;
+    }
+    return index;
+  }
+
+  private void grow() {
+    var capacity = entities.length * 2;
+    entities = Arrays.copyOf(entities, capacity);
+    ids = Arrays.copyOf(ids, capacity);
+    table = new int[tableSize(capacity)];
+    var mask = table.length - 1;
+    for (int position = 0; position < size; position++) {
+      var index = index(ids[position], mask);
+      while (table[index] != 0) {
+        index = (index + 1) & mask;
+      }
+      table[index] = position + 1;
+    }
+  }
+
+  private static boolean sameName(AuditEvent.Entity entity, AuditEvent.Entity other) {
+    return Objects.equals(entity.getName(), other.getName());
+  }
+
+  /**
+   * Returns the id as a number if it is the canonical decimal form of a long.
+   */
+  private static Long parse(String id) {
+    var value = id == null ? null : Longs.tryParse(id);
+    return value != null && id.equals(value.toString()) ? value : null;
+  }
+
+  private static int tableSize(int capacity) {
+    return Integer.highestOneBit((capacity + capacity / 3) * 2 - 1);
+  }
+
+  private static int index(long id, int mask) {
+    var hash = id * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ hash >>> 32) & mask;
+  }
+
+  /**
+   * Iterates the entities with a numeric id, then the other ones. Removing an entity with a
+   * numeric id moves the last one to its position, which is visited next.
+   */
+  private final class EntityIterator implements Iterator<AuditEvent.Entity> {
+
+    private int cursor;
+    private int current = -1;
+    private Iterator<AuditEvent.Entity> rest;
+
+    @Override
+    public boolean hasNext() {
+      return cursor < size || others != null && rest().hasNext();
+    }
+
+    @Override
+    public AuditEvent.Entity next() {
+      if (cursor < size) {
+        current = cursor;
+        return entities[cursor++];
+      }
+      current = -1;
+      if (others == null) {
+        throw new NoSuchElementException();
+      }
+      return rest().next();
+    }
+
+    @Override
+    public void remove() {
+      if (current >= 0) {
+        removePosition(current);
+        cursor = current;
+        current = -1;
+      } else if (rest != null) {
+        rest.remove();
+      } else {
+        throw new IllegalStateException();
+      }
+    }
+
+    private Iterator<AuditEvent.Entity> rest() {
+      if (rest == null) {
+        rest = others.iterator();
+      }
+      return rest;
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package warehouse.com.audit.starter.service;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.DisposableBean;
+import warehouse.com.audit.starter.config.AuditProperties;
+
+/**
+ * Dedicated fork-join pool that extracts the entities of large collections in parallel, so the
+ * extraction does not compete with other users of the common pool.
+ */
+public class ExtractionPool implements DisposableBean {
+
+  private final ForkJoinPool pool;
+  private final int threshold;
+  private final int taskSize;
+
+  public ExtractionPool(AuditProperties.Parallel properties) {
+    if (properties.getThreshold() < 1 || properties.getParallelism() < 1
+        || properties.getTaskSize() < 1) {
+      throw new IllegalArgumentException(
+          "Parallel extraction threshold, parallelism and task size must be positive");
+    }
+    this.threshold = properties.getThreshold();
+    this.taskSize = properties.getTaskSize();
+    this.pool = new ForkJoinPool(properties.getParallelism(), pool -> {
+      var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+      thread.setName("audit-extraction-" + thread.getPoolIndex());
+      return thread;
+    }, null, false);
+  }
+
+  /**
+   * Returns whether a collection of the size is extracted in parallel.
+   */
+  boolean accepts(long size) {
+    return size >= threshold;
+  }
+
+  /**
+   * Runs the task over ranges of at most {@code task-size} indexes and waits for all of them.
+   *
+   * @param size Number of indexes
+   * @param task Task of one range
+   */
+  void forEach(int size, RangeTask task) {
+    if (size <= taskSize) {
+      task.run(0, size);
+    } else {
+      pool.invoke(new Split(task, 0, size, taskSize));
+    }
+  }
+
+  @Override
+  public void destroy() throws Exception {
+    pool.shutdown();
+    pool.awaitTermination(1, TimeUnit.SECONDS);
+  }
+
+  @FunctionalInterface
+  interface RangeTask {
+
+    void run(int from, int to);
+  }
+
+  private static final class Split extends RecursiveAction {
+
+    private final RangeTask task;
+    private final int from;
+    private final int to;
+    private final int grain;
+
+    private Split(RangeTask task, int from, int to, int grain) {
+      this.task = task;
+      this.from = from;
+      this.to = to;
+      this.grain = grain;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= grain) {
+        task.run(from, to);
+        return;
+      }
+      var middle = (from + to) >>> 1;
+      invokeAll(new Split(task, from, middle, grain), new Split(task, middle, to, grain));
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package warehouse.com.audit.starter.service;
+
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import warehouse.com.audit.starter.metadata.AuditableMetadata;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+/**
+ * Audit events of the current transaction. Entities of events with the same entity type, action,
+ * initiator and description are merged into one group, equal entities are kept once and their
+ * changed fields are combined. Groups are sent after commit and discarded on rollback.
+ */
+@Slf4j
+class TransactionalAuditEvents implements TransactionSynchronization {
+
+  private static final Object RESOURCE_KEY = TransactionalAuditEvents.class;
+
+  private final Map<Key, Group> groups = new LinkedHashMap<>();
+  private final Consumer<Group> sender;
+
+  private TransactionalAuditEvents(Consumer<Group> sender) {
+    this.sender = sender;
+  }
+
+  /**
+   * Returns events of the current transaction, registered on the first access.
+   *
+   * @param sender Sends the events of a group after commit
+   * @return Events of the current transaction or {@code null} without transaction synchronization
+   */
+  static TransactionalAuditEvents current(Consumer<Group> sender) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return null;
+    }
+    var events = (TransactionalAuditEvents) TransactionSynchronizationManager
+        .getResource(RESOURCE_KEY);
+    if (events == null) {
+      events = new TransactionalAuditEvents(sender);
+      TransactionSynchronizationManager.bindResource(RESOURCE_KEY, events);
+      TransactionSynchronizationManager.registerSynchronization(events);
+    }
+    return events;
+  }
+
+  /**
+   * Returns the group of the event entity type, action, initiator and description, the other
+   * details of the group are taken from the latest event.
+   *
+   * @param metadata Metadata of the audited entities
+   * @param event    Event without entities
+   */
+  Group group(AuditableMetadata metadata, AuditEvent event) {
+    var group = groups.computeIfAbsent(new Key(event.getEntityType(), event.getAction(),
+        event.getInitiatorId(), event.getDescription()), key -> new Group(metadata));
+    group.latest = event;
+    return group;
+  }
+
+  @Override
+  public void afterCommit() {
+    for (Group group : groups.values()) {
+      try {
+        sender.accept(group);
+      } catch (RuntimeException e) {
+        log.error("Audit event publishing after commit failed",
+            keyValue("entityType", group.latest.getEntityType()),
+            keyValue("action", group.latest.getAction()), e);
+      }
+    }
+  }
+
+  @Override
+  public void afterCompletion(int status) {
+    TransactionSynchronizationManager.unbindResourceIfPossible(RESOURCE_KEY);
+    if (status != STATUS_COMMITTED && !groups.isEmpty()) {
+      log.debug("Audit events of a rolled back transaction are discarded",
+          keyValue("groups", groups.size()));
+    }
+    groups.clear();
+  }
+
+  private record Key(String entityType, String action, String initiatorId, String description) {
+
+  }
+
+  static final class Group {
+
+    private final AuditableMetadata metadata;
+    private final Set<AuditEvent.Entity> entities = new LinkedHashSet<>();
+    private final Map<Object, List<String>> changes = new HashMap<>();
+    private AuditEvent latest;
+
+    private Group(AuditableMetadata metadata) {
+      this.metadata = metadata;
+    }
+
+    void add(AuditEvent.Entity entity, Collection<String> fields) {
+      entities.add(entity);
+      if (fields != null && !fields.isEmpty()) {
+        var changed = changes.computeIfAbsent(entity, key -> new ArrayList<>(fields.size()));
+        fields.stream().filter(field -> !changed.contains(field)).forEach(changed::add);
+      }
+    }
+
+    AuditableMetadata getMetadata() {
+      return metadata;
+    }
+
+    AuditEvent getLatest() {
+      return latest;
+    }
+
+    Set<AuditEvent.Entity> getEntities() {
+      return entities;
+    }
+
+    /**
+     * Returns changed fields per entity, {@code null} if no entity has changes.
+     */
+    Map<Object, List<String>> getChanges() {
+      return changes.isEmpty() ? null : changes;
+    }
+  }
+}
@@ -1,89 +1,121 @@
 package warehouse.com.audit.starter.service;
 
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
 import jakarta.annotation.PostConstruct;
-import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 import lombok.SneakyThrows;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
-import org.apache.commons.lang3.reflect.MethodUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.BeanClassLoaderAware;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
 import org.springframework.core.type.filter.AnnotationTypeFilter;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.domain.Persistable;
+import org.springframework.util.ClassUtils;
 import warehouse.com.audit.starter.annotation.AuditableEntity;
 import warehouse.com.audit.starter.annotation.AuditableId;
 import warehouse.com.audit.starter.annotation.AuditableName;
-import warehouse.com.audit.starter.annotation.AuditableType;
-import warehouse.com.audit.starter.exception.AuditInitializationException;
+import warehouse.com.audit.starter.metadata.AuditableEntityIndex;
+import warehouse.com.audit.starter.metadata.AuditableMetadata;
 
 /**
  * Validates that {@link AuditableEntity} has fields and methods annotated with {@link AuditableId},
- * {@link AuditableName}, {@link LastModifiedDate}
+ * {@link AuditableName}, {@link LastModifiedDate}. {@link Persistable} entities tell whether they
+ * are new themselves and need no {@link LastModifiedDate}.
+ * <p> Entities are taken from the compile time {@link AuditableEntityIndex} and checked against
+ * their index entry without initializing them. Classpath roots under the base package that carry
+ * no index, e.g. a module compiled without the annotation processor, are still scanned, so their
+ * invalid entities fail the startup as well. The whole classpath is scanned only when no index is
+ * present or {@code application.audit.use-index} is disabled. </p>
  */
-public class ValidationProcessor {
+@Slf4j
+public class ValidationProcessor implements BeanClassLoaderAware {
 
   @Value("${application.audit.basePackage:warehouse.com}")
   private String basePackage;
 
-  @SneakyThrows
-  @PostConstruct
-  public void validateRequiredAnnotations() {
-    var provider = new ClassPathScanningCandidateComponentProvider(false);
-    provider.addIncludeFilter(new AnnotationTypeFilter(AuditableEntity.class));
-    var candidateComponents = provider.findCandidateComponents(basePackage);
-    for (BeanDefinition candidateComponent : candidateComponents) {
-      var aClass = Class.forName(candidateComponent.getBeanClassName());
-
-      validateAnnotatedField(aClass, AuditableId.class);
-      validateAnnotatedField(aClass, LastModifiedDate.class);
-      validateAnnotatedFieldOrMethod(aClass, AuditableName.class);
+  @Value("${application.audit.use-index:true}")
+  private boolean useIndex = true;
 
-      if (isEntityTypeEmpty(aClass)) {
-        validateAnnotatedMethod(aClass, AuditableType.class);
-      }
-    }
-  }
+  private ClassLoader classLoader = ValidationProcessor.class.getClassLoader();
 
-  private boolean isEntityTypeEmpty(Class<?> aClass) {
-    return StringUtils.EMPTY.equals(aClass.getAnnotation(AuditableEntity.class).entityType());
+  @Override
+  public void setBeanClassLoader(ClassLoader classLoader) {
+    this.classLoader = classLoader;
   }
 
-  private void validateAnnotatedField(Class<?> aClass, Class<? extends Annotation> annotation) {
-    if (isAnnotationAbsentOnField(aClass, annotation)) {
-      throw new AuditInitializationException(getErrorText(annotation, aClass));
+  @SneakyThrows
+  @PostConstruct
+  public void validateRequiredAnnotations() {
+    var index = useIndex ? AuditableEntityIndex.load(classLoader) : null;
+    if (index == null || index.isEmpty()) {
+      validateScannedEntities();
+      return;
     }
-  }
-
-  private void validateAnnotatedMethod(Class<?> aClass, Class<? extends Annotation> annotation) {
-    if (isAnnotationAbsentOnMethod(aClass, annotation)) {
-      throw new AuditInitializationException(getErrorText(annotation, aClass));
+    for (String className : index.getClassNames(basePackage)) {
+      AuditableMetadata.validate(ClassUtils.forName(className, classLoader),
+          index.get(className));
     }
-  }
-
-  private void validateAnnotatedFieldOrMethod(Class<?> aClass,
-      Class<? extends Annotation> annotation) {
-    if (isAnnotationAbsentOnField(aClass, annotation) && isAnnotationAbsentOnMethod(aClass,
-        annotation)) {
-      throw new AuditInitializationException(getErrorText(annotation, aClass));
+    for (String className : findUnindexedEntities()) {
+      log.warn("Auditable entity is missing from the compile time index, check that the "
+          + "annotation processor runs for its module", keyValue("type", className));
+      AuditableMetadata.validate(ClassUtils.forName(className, classLoader), null);
     }
   }
 
-  private String getErrorText(Class<? extends Annotation> annotation, Class<?> aClass) {
-    return String
-        .format("Annotation %s is required for %s entity, see %s java doc", annotation.getName(),
-            aClass.getName(),
-            AuditableEntity.class.getName());
+  @SneakyThrows
+  private void validateScannedEntities() {
+    var provider = new ClassPathScanningCandidateComponentProvider(false);
+    provider.setResourceLoader(new PathMatchingResourcePatternResolver(classLoader));
+    provider.addIncludeFilter(new AnnotationTypeFilter(AuditableEntity.class));
+    for (BeanDefinition candidateComponent : provider.findCandidateComponents(basePackage)) {
+      AuditableMetadata.validate(
+          ClassUtils.forName(candidateComponent.getBeanClassName(), classLoader), null);
+    }
   }
 
-  private boolean isAnnotationAbsentOnMethod(Class<?> aClass,
-      Class<? extends Annotation> annotation) {
-    return MethodUtils.getMethodsListWithAnnotation(aClass, annotation).isEmpty();
+  /**
+   * Reads the class files of the base package in classpath roots without an index and returns
+   * the auditable ones, classes are not loaded for that.
+   */
+  @SneakyThrows
+  private Set<String> findUnindexedEntities() {
+    var indexedRoots = new HashSet<String>();
+    for (URL index : Collections.list(classLoader.getResources(AuditableEntityIndex.LOCATION))) {
+      indexedRoots.add(root(index, AuditableEntityIndex.LOCATION));
+    }
+    var packagePath = ClassUtils.convertClassNameToResourcePath(basePackage);
+    var resolver = new PathMatchingResourcePatternResolver(classLoader);
+    var readerFactory = new CachingMetadataReaderFactory(resolver);
+    var filter = new AnnotationTypeFilter(AuditableEntity.class);
+    var classNames = new HashSet<String>();
+    for (URL directory : Collections.list(classLoader.getResources(packagePath))) {
+      if (indexedRoots.contains(root(directory, packagePath))) {
+        continue;
+      }
+      var location = directory.toString().replaceAll("/$", "");
+      for (Resource resource : resolver.getResources(location + "/**/*.class")) {
+        var reader = readerFactory.getMetadataReader(resource);
+        var metadata = reader.getAnnotationMetadata();
+        if (metadata.isIndependent() && metadata.isConcrete()
+            && filter.match(reader, readerFactory)) {
+          classNames.add(metadata.getClassName());
+        }
+      }
+    }
+    return classNames;
   }
 
-  private boolean isAnnotationAbsentOnField(Class<?> aClass,
-      Class<? extends Annotation> annotation) {
-    return FieldUtils.getFieldsListWithAnnotation(aClass, annotation).isEmpty();
+  private static String root(URL resource, String path) {
+    var location = resource.toString().replaceAll("/$", "");
+    return location.substring(0, location.length() - path.length());
   }
 }
-
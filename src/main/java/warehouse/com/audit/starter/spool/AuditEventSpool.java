@@ -0,0 +1,318 @@
+package warehouse.com.audit.starter.spool;
+
+import static net.logstash.logback.argument.StructuredArguments.keyValue;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only spool of records in memory-mapped segment files.
+ * <p> Each record is written as {@code [length][crc32c][payload]}, the length goes last so a
+ * record is complete once it is visible. A segment that has no room for the next record is closed
+ * by a {@code -1} length. The read position is kept in a mapped checkpoint file, so records are
+ * read at least once across restarts: a crash between a read and its checkpoint repeats the
+ * record. </p>
+ * <p> Records can be appended from any thread, {@link #peek()} and {@link #commit()} are meant
+ * for a single reader. The directory is locked while the spool is open, so it cannot be shared by
+ * two spools of the same or another process. </p>
+ */
+@Slf4j
+public class AuditEventSpool implements Closeable {
+
+  private static final String SEGMENT_SUFFIX = ".spool";
+  private static final String CHECKPOINT = "checkpoint";
+  private static final String LOCK = "lock";
+  private static final int HEADER_BYTES = 2 * Integer.BYTES;
+  private static final int END_OF_SEGMENT = -1;
+
+  private final Path directory;
+  private final int segmentSize;
+  private final boolean force;
+  private final ConcurrentNavigableMap<Integer, MappedByteBuffer> segments =
+      new ConcurrentSkipListMap<>();
+  private final ReentrantLock appendLock = new ReentrantLock();
+  private final AtomicLong pending = new AtomicLong();
+  private final FileChannel lockChannel;
+  private final FileLock lock;
+  private final MappedByteBuffer checkpoint;
+
+  private MappedByteBuffer writeSegment;
+  private int writeSegmentId;
+  private int writeOffset;
+  private volatile long writePosition;
+
+  private long readPosition;
+  private long nextReadPosition;
+
+  /**
+   * Opens the spool in the directory and recovers records that were not read before.
+   *
+   * @param directory   Spool directory, created if missing
+   * @param segmentSize Size of one segment file, limits the size of a record
+   * @param force       Force every appended record to the storage device
+   * @throws IllegalStateException if the directory is locked by another spool
+   */
+  public AuditEventSpool(Path directory, int segmentSize, boolean force) throws IOException {
+    this.directory = Files.createDirectories(directory);
+    this.segmentSize = segmentSize;
+    this.force = force;
+    this.lockChannel = FileChannel.open(directory.resolve(LOCK), StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE);
+    this.lock = lock(lockChannel, directory);
+    try {
+      this.checkpoint = map(directory.resolve(CHECKPOINT), Long.BYTES);
+      recover();
+    } catch (IOException | RuntimeException e) {
+      lockChannel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Appends the record.
+   *
+   * @param record Non-empty record, not larger than a segment without its header
+   */
+  public void append(byte[] record) {
+    var size = HEADER_BYTES + record.length;
+    if (record.length == 0 || size > segmentSize) {
+      throw new IllegalArgumentException(
+          "Spool record size must be between 1 and " + (segmentSize - HEADER_BYTES));
+    }
+    var crc = crc(record);
+    appendLock.lock();
+    try {
+      if (writeOffset + size > segmentSize) {
+        roll();
+      }
+      writeSegment.put(writeOffset + HEADER_BYTES, record);
+      writeSegment.putInt(writeOffset + Integer.BYTES, crc);
+      writeSegment.putInt(writeOffset, record.length);
+      if (force) {
+        writeSegment.force(writeOffset, size);
+      }
+      writeOffset += size;
+      pending.incrementAndGet();
+      writePosition = position(writeSegmentId, writeOffset);
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  /**
+   * Returns the oldest record that was not committed yet.
+   *
+   * @return Record or {@code null} when everything was read
+   */
+  public byte[] peek() {
+    var written = writePosition;
+    while (readPosition != written) {
+      var segmentId = segmentId(readPosition);
+      var offset = offset(readPosition);
+      var segment = segments.get(segmentId);
+      var length = offset + Integer.BYTES > segmentSize ? END_OF_SEGMENT : segment.getInt(offset);
+      if (length == END_OF_SEGMENT) {
+        readPosition = position(segmentId + 1, 0);
+        saveCheckpoint(readPosition);
+        delete(segmentId);
+        continue;
+      }
+      var record = new byte[length];
+      segment.get(offset + HEADER_BYTES, record);
+      nextReadPosition = position(segmentId, offset + HEADER_BYTES + length);
+      return record;
+    }
+    return null;
+  }
+
+  /**
+   * Marks the record returned by the last {@link #peek()} as read.
+   */
+  public void commit() {
+    if (nextReadPosition != readPosition) {
+      readPosition = nextReadPosition;
+      saveCheckpoint(readPosition);
+      pending.decrementAndGet();
+    }
+  }
+
+  public long getPendingCount() {
+    return pending.get();
+  }
+
+  /**
+   * Forces the spool to the storage device and releases the directory lock.
+   */
+  @Override
+  public void close() {
+    appendLock.lock();
+    try {
+      segments.values().forEach(MappedByteBuffer::force);
+      checkpoint.force();
+      lock.release();
+      lockChannel.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to release audit spool lock " + directory, e);
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  private void recover() throws IOException {
+    try (var files = Files.list(directory)) {
+      files.map(file -> file.getFileName().toString())
+          .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+          .map(name -> Integer.valueOf(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+          .forEach(id -> segments.put(id, mapSegment(id)));
+    }
+    var saved = checkpoint.getLong(0);
+    readPosition = segments.isEmpty() || segmentId(saved) < segments.firstKey()
+        ? position(segments.isEmpty() ? 0 : segments.firstKey(), 0)
+        : saved;
+    segments.headMap(segmentId(readPosition)).keySet().forEach(this::delete);
+    nextReadPosition = readPosition;
+    saveCheckpoint(readPosition);
+
+    writeSegmentId = segmentId(readPosition);
+    writeOffset = offset(readPosition);
+    writeSegment = segments.computeIfAbsent(writeSegmentId, this::mapSegment);
+    while (true) {
+      var length = writeOffset + HEADER_BYTES > segmentSize
+          ? END_OF_SEGMENT
+          : writeSegment.getInt(writeOffset);
+      if (length != END_OF_SEGMENT && !isValid(writeSegment, writeOffset, length)) {
+        if (writeSegmentId == segments.lastKey()) {
+          break;
+        }
+        log.warn("Audit spool segment is damaged, its remaining records are skipped",
+            keyValue("segment", writeSegmentId), keyValue("offset", writeOffset));
+        if (writeOffset + Integer.BYTES <= segmentSize) {
+          writeSegment.putInt(writeOffset, END_OF_SEGMENT);
+        }
+        length = END_OF_SEGMENT;
+      }
+      if (length == END_OF_SEGMENT) {
+        if (writeSegmentId == segments.lastKey()) {
+          break;
+        }
+        writeSegmentId = segments.higherKey(writeSegmentId);
+        writeSegment = segments.get(writeSegmentId);
+        writeOffset = 0;
+        continue;
+      }
+      writeOffset += HEADER_BYTES + length;
+      pending.incrementAndGet();
+    }
+    if (writeOffset + HEADER_BYTES > segmentSize
+        || (writeOffset + Integer.BYTES <= segmentSize
+        && writeSegment.getInt(writeOffset) == END_OF_SEGMENT)) {
+      roll();
+    }
+    writePosition = position(writeSegmentId, writeOffset);
+    if (pending.get() > 0) {
+      log.info("Audit spool recovered", keyValue("pending", pending.get()));
+    }
+  }
+
+  private boolean isValid(MappedByteBuffer segment, int offset, int length) {
+    if (length <= 0 || offset + HEADER_BYTES + length > segmentSize) {
+      return false;
+    }
+    var record = new byte[length];
+    segment.get(offset + HEADER_BYTES, record);
+    return segment.getInt(offset + Integer.BYTES) == crc(record);
+  }
+
+  private void roll() {
+    if (writeOffset + Integer.BYTES <= segmentSize) {
+      writeSegment.putInt(writeOffset, END_OF_SEGMENT);
+    }
+    writeSegmentId++;
+    writeSegment = mapSegment(writeSegmentId);
+    segments.put(writeSegmentId, writeSegment);
+    writeOffset = 0;
+  }
+
+  private void saveCheckpoint(long position) {
+    checkpoint.putLong(0, position);
+    if (force) {
+      checkpoint.force();
+    }
+  }
+
+  private void delete(int segmentId) {
+    segments.remove(segmentId);
+    try {
+      Files.deleteIfExists(segmentPath(segmentId));
+    } catch (IOException e) {
+      log.warn("Audit spool segment could not be deleted", keyValue("segment", segmentId), e);
+    }
+  }
+
+  private MappedByteBuffer mapSegment(int segmentId) {
+    try {
+      return map(segmentPath(segmentId), segmentSize);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to map audit spool segment " + segmentId, e);
+    }
+  }
+
+  private Path segmentPath(int segmentId) {
+    return directory.resolve(String.format("%010d%s", segmentId, SEGMENT_SUFFIX));
+  }
+
+  private static FileLock lock(FileChannel channel, Path directory) throws IOException {
+    FileLock lock;
+    try {
+      lock = channel.tryLock();
+    } catch (OverlappingFileLockException e) {
+      lock = null;
+    }
+    if (lock == null) {
+      channel.close();
+      throw new IllegalStateException("Audit spool directory " + directory
+          + " is locked by another spool, every instance needs its own directory");
+    }
+    return lock;
+  }
+
+  private static MappedByteBuffer map(Path path, int size) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      return channel.map(MapMode.READ_WRITE, 0, size);
+    }
+  }
+
+  private static int crc(byte[] record) {
+    var crc = new CRC32C();
+    crc.update(record);
+    return (int) crc.getValue();
+  }
+
+  private static long position(int segmentId, int offset) {
+    return (long) segmentId << Integer.SIZE | offset;
+  }
+
+  private static int segmentId(long position) {
+    return (int) (position >>> Integer.SIZE);
+  }
+
+  private static int offset(long position) {
+    return (int) position;
+  }
+}
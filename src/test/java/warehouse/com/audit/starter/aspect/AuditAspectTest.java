@@ -3,6 +3,7 @@ package warehouse.com.audit.starter.aspect;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static warehouse.com.audit.starter.common.Constants.CREATED;
@@ -12,13 +13,16 @@ import static warehouse.com.audit.starter.entity.valid.MethodTestEntity.METHOD_T
 import static warehouse.com.audit.starter.entity.valid.TestEntity.TEST_ENTITY_TYPE;
 
 import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.test.util.ReflectionTestUtils;
 import warehouse.com.audit.starter.TestSpringContext;
 import warehouse.com.audit.starter.annotation.AuditEvent;
 import warehouse.com.audit.starter.entity.valid.TestEntity;
@@ -32,9 +36,7 @@ class AuditAspectTest extends TestSpringContext {
 
   @AfterEach
   public void cleanUp() {
-    ReflectionTestUtils
-        .setField(auditAspect, "disableDefaultEvents",
-            InheritableThreadLocal.withInitial(() -> Boolean.FALSE));
+    AuditScope.restore(null);
   }
 
   @Test
@@ -65,6 +67,26 @@ class AuditAspectTest extends TestSpringContext {
         .isEqualToIgnoringGivenFields(getExpected("test", TEST_ENTITY_TYPE), "timestamp");
   }
 
+  @Test
+  void shouldLogEventOfReturnedStreamWhenConsumed() throws Throwable {
+    var joinPoint = mock(ProceedingJoinPoint.class);
+    var signature = mock(MethodSignature.class);
+    when(joinPoint.getArgs()).thenReturn(new Object[]{});
+    when(joinPoint.getSignature()).thenReturn(signature);
+    when(signature.getReturnType()).thenReturn(Stream.class);
+    when(joinPoint.proceed()).thenReturn(Stream.of(getTestEntity()));
+
+    var result = (Stream<?>) auditAspect.logAuditEvent(joinPoint, getAuditEvent("test", true));
+    verify(eventService, never()).publish(auditEventCaptor.capture());
+    result.forEach(entity -> {
+    });
+
+    //then
+    verify(eventService).publish(auditEventCaptor.capture());
+    assertThat(auditEventCaptor.getValue())
+        .isEqualToIgnoringGivenFields(getExpected("test", TEST_ENTITY_TYPE), "timestamp");
+  }
+
   @Test
   void shouldNotLogIfNoAnnotatedEntity() throws Throwable {
     var joinPoint = mock(ProceedingJoinPoint.class);
@@ -109,6 +131,47 @@ class AuditAspectTest extends TestSpringContext {
         .isEqualToIgnoringGivenFields(getExpected(UPDATED, METHOD_TYPE), "timestamp");
   }
 
+  @Test
+  void shouldSplitMixedBatchIntoCreatedAndUpdatedEvents() throws Throwable {
+    //given
+    var created = List.of(getTestEntity(), TestEntity.builder().id("2").build());
+    var updated = TestEntity.builder().id("3").lastModifiedDate(new Date()).build();
+    var joinPoint = mock(ProceedingJoinPoint.class);
+
+    //when
+    auditAspect.logSaveEvent(joinPoint, List.of(created.get(0), updated, created.get(1)));
+
+    //then
+    verify(eventService, times(2)).publish(auditEventCaptor.capture());
+    var events = auditEventCaptor.getAllValues();
+    assertThat(events).extracting(event -> event.getAction()).containsExactly(CREATED, UPDATED);
+    assertThat(events.get(0).getEntities()).extracting(entity -> entity.getId())
+        .containsExactlyInAnyOrder(ID, "2");
+    assertThat(events.get(1).getEntities()).extracting(entity -> entity.getId())
+        .containsExactly("3");
+  }
+
+  @Test
+  void shouldSkipNullElementsOfSaveAll() throws Throwable {
+    //given
+    var created = TestEntity.builder().id("2").build();
+    var updated = TestEntity.builder().id("3").lastModifiedDate(new Date()).build();
+    var joinPoint = mock(ProceedingJoinPoint.class);
+
+    //when
+    auditAspect.logSaveEvent(joinPoint,
+        Arrays.asList(getTestEntity(), null, updated, null, created));
+
+    //then
+    verify(eventService, times(2)).publish(auditEventCaptor.capture());
+    var events = auditEventCaptor.getAllValues();
+    assertThat(events).extracting(event -> event.getAction()).containsExactly(CREATED, UPDATED);
+    assertThat(events.get(0).getEntities()).extracting(entity -> entity.getId())
+        .containsExactlyInAnyOrder(ID, "2");
+    assertThat(events.get(1).getEntities()).extracting(entity -> entity.getId())
+        .containsExactly("3");
+  }
+
   @Test
   void shouldLogDeletedEvent() {
     //given
@@ -135,9 +198,7 @@ class AuditAspectTest extends TestSpringContext {
   @Test
   void shouldNotLogDeleteEventForDisabledAnnotatedEntity() {
     //given
-    ReflectionTestUtils
-        .setField(auditAspect, "disableDefaultEvents",
-            InheritableThreadLocal.withInitial(() -> Boolean.TRUE));
+    AuditScope.enter(true);
     //when
     auditAspect.logDeleteEvent(new Object());
 
@@ -149,9 +210,7 @@ class AuditAspectTest extends TestSpringContext {
   void shouldNotLogSaveEventForDisabledAnnotatedEntity() throws Throwable {
     //given
     var joinPoint = mock(ProceedingJoinPoint.class);
-    ReflectionTestUtils
-        .setField(auditAspect, "disableDefaultEvents",
-            InheritableThreadLocal.withInitial(() -> Boolean.TRUE));
+    AuditScope.enter(true);
 
     //when
     auditAspect.logSaveEvent(joinPoint, new Object());
@@ -0,0 +1,64 @@
+package warehouse.com.audit.starter.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class AuditScopeTest {
+
+  @AfterEach
+  void cleanUp() {
+    AuditScope.restore(null);
+  }
+
+  @Test
+  void shouldRestoreEnclosingStateAfterNestedCall() {
+    //given
+    var outer = AuditScope.enter(true);
+    //when
+    var inner = AuditScope.enter(false);
+    var nested = AuditScope.isDefaultEventsDisabled();
+    AuditScope.restore(inner);
+    //then
+    assertThat(nested).isFalse();
+    assertThat(AuditScope.isDefaultEventsDisabled()).isTrue();
+    AuditScope.restore(outer);
+    assertThat(AuditScope.isDefaultEventsDisabled()).isFalse();
+  }
+
+  @Test
+  void shouldNotBeInheritedByNewThread() throws InterruptedException {
+    //given
+    AuditScope.enter(true);
+    var disabled = new AtomicBoolean(true);
+    //when
+    var thread = new Thread(() -> disabled.set(AuditScope.isDefaultEventsDisabled()));
+    thread.start();
+    thread.join();
+    //then
+    assertThat(disabled).isFalse();
+  }
+
+  @Test
+  void shouldPropagateToWrappedExecutor() {
+    //given
+    var executor = Executors.newSingleThreadExecutor();
+    try {
+      AuditScope.enter(true);
+      //when
+      var propagated = CompletableFuture.supplyAsync(AuditScope::isDefaultEventsDisabled,
+          AuditScope.wrap(executor)).join();
+      var afterwards = CompletableFuture.supplyAsync(AuditScope::isDefaultEventsDisabled,
+          executor).join();
+      //then
+      assertThat(propagated).isTrue();
+      assertThat(afterwards).isFalse();
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package warehouse.com.audit.starter.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.Stream;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.Test;
+import warehouse.com.audit.starter.diff.ChangeTracker;
+import warehouse.com.audit.starter.entity.valid.ChangeTestEntity;
+
+class ChangeCaptureAspectTest {
+
+  private final ChangeTracker changeTracker = new ChangeTracker();
+  private final ChangeCaptureAspect changeCaptureAspect = new ChangeCaptureAspect(changeTracker);
+
+  @Test
+  void shouldSnapshotEntitiesOfStreamWhenConsumed() throws Throwable {
+    //given
+    var entity = ChangeTestEntity.builder().id("1").name("name").build();
+    var joinPoint = mock(ProceedingJoinPoint.class);
+    when(joinPoint.proceed()).thenReturn(Stream.of(entity));
+    //when
+    var loaded = (Stream<?>) changeCaptureAspect.snapshotLoaded(joinPoint);
+    var notConsumed = changeTracker.changes(List.of(entity));
+    loaded.forEach(element -> {
+    });
+    entity.setName("renamed");
+    //then
+    assertThat(notConsumed).isNull();
+    assertThat(changeTracker.changes(List.of(entity)).get(entity)).containsExactly("name");
+  }
+}
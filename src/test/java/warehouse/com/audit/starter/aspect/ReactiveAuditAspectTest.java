@@ -0,0 +1,307 @@
+package warehouse.com.audit.starter.aspect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static warehouse.com.audit.starter.common.Constants.CREATED;
+import static warehouse.com.audit.starter.common.Constants.DELETED;
+import static warehouse.com.audit.starter.common.Constants.UPDATED;
+
+import com.google.common.collect.Lists;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Publisher;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.audit.starter.entity.valid.TestEntity;
+import warehouse.com.audit.starter.service.AuditService;
+import warehouse.com.eventstarter.model.AuditEvent;
+import warehouse.com.eventstarter.service.EventService;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveAuditAspectTest {
+
+  @Mock
+  private EventService eventService;
+  @Captor
+  private ArgumentCaptor<AuditEvent> eventCaptor;
+  private ReactiveCrudRepository<TestEntity, String> repository;
+
+  @BeforeEach
+  void setUp() {
+    repository = proxy(new InMemoryRepository<>());
+  }
+
+  @Test
+  void shouldPublishOnlyWhenSubscribed() {
+    //given
+    var save = repository.save(entity("1"));
+    verifyNoInteractions(eventService);
+    //when
+    var saved = save.block();
+    //then
+    verify(eventService).publish(eventCaptor.capture());
+    assertThat(eventCaptor.getValue().getAction()).isEqualTo(CREATED);
+    assertThat(saved.getLastModifiedDate()).isNotNull();
+  }
+
+  @Test
+  void shouldPublishUpdateOfSavedEntity() {
+    //given
+    var entity = repository.save(entity("1")).block();
+    //when
+    repository.save(entity).block();
+    //then
+    verify(eventService, times(2)).publish(eventCaptor.capture());
+    assertThat(eventCaptor.getAllValues()).extracting(AuditEvent::getAction)
+        .containsExactly(CREATED, UPDATED);
+  }
+
+  @Test
+  void shouldBatchStreamedSaveAll() {
+    //given
+    var entities = Flux.fromStream(IntStream.range(0, 5).mapToObj(i -> entity("" + i)));
+    //when
+    var saved = repository.saveAll(entities).collectList().block();
+    //then
+    assertThat(saved).hasSize(5);
+    verify(eventService, times(3)).publish(eventCaptor.capture());
+    assertThat(eventCaptor.getAllValues()).extracting(event -> event.getEntities().size())
+        .containsExactly(2, 2, 1);
+  }
+
+  @Test
+  void shouldSplitBatchByAction() {
+    //given
+    var existing = repository.save(entity("1")).block();
+    //when
+    repository.saveAll(List.of(existing, entity("2"))).blockLast();
+    //then
+    verify(eventService, times(3)).publish(eventCaptor.capture());
+    assertThat(eventCaptor.getAllValues()).extracting(AuditEvent::getAction)
+        .containsExactly(CREATED, UPDATED, CREATED);
+  }
+
+  @Test
+  void shouldMatchActionsBySavedEntityIdentity() {
+    //given
+    var existing = repository.save(entity("1")).block();
+    var reversing = proxy(new InMemoryRepository<>() {
+      @Override
+      public <S extends TestEntity> Flux<S> saveAll(Publisher<S> entityStream) {
+        return Flux.from(entityStream).collectList()
+            .flatMapMany(saved -> Flux.fromIterable(Lists.reverse(saved)))
+            .concatMap(this::save);
+      }
+    });
+    //when
+    reversing.saveAll(Flux.just(existing, entity("2"))).blockLast();
+    //then
+    verify(eventService, times(3)).publish(eventCaptor.capture());
+    assertThat(eventCaptor.getAllValues())
+        .extracting(event -> event.getAction() + ":"
+            + event.getEntities().iterator().next().getId())
+        .containsExactly(CREATED + ":1", CREATED + ":2", UPDATED + ":1");
+  }
+
+  @Test
+  void shouldPublishStreamedDeletesInBatches() {
+    //given
+    var entities = Flux.fromStream(IntStream.range(0, 5).mapToObj(i -> entity("" + i)));
+    //when
+    repository.deleteAll(entities).block();
+    //then
+    verify(eventService, times(3)).publish(eventCaptor.capture());
+    assertThat(eventCaptor.getAllValues()).extracting(event -> event.getEntities().size())
+        .containsExactly(2, 2, 1);
+  }
+
+  @Test
+  void shouldNotPublishStreamedDeletesWhenDeleteFails() {
+    //given
+    var entities = Flux.just(entity("1"), entity("2"), entity("3"), entity("failing"));
+    //when
+    var delete = repository.deleteAll(entities);
+    //then
+    assertThatThrownBy(delete::block).isInstanceOf(IllegalStateException.class);
+    verifyNoInteractions(eventService);
+  }
+
+  @Test
+  void shouldPublishDeleteAfterCompletion() {
+    //given
+    var entities = Flux.just(entity("1"), entity("2"));
+    //when
+    repository.deleteAll(entities).block();
+    //then
+    verify(eventService).publish(eventCaptor.capture());
+    assertThat(eventCaptor.getValue().getAction()).isEqualTo(DELETED);
+    assertThat(eventCaptor.getValue().getEntities()).hasSize(2);
+  }
+
+  @Test
+  void shouldNotPublishWhenDisabledInContext() {
+    //when
+    repository.save(entity("1"))
+        .contextWrite(context -> context.put(AuditScope.class, true))
+        .block();
+    //then
+    verifyNoInteractions(eventService);
+  }
+
+  @Test
+  void shouldNotPublishWhenSaveFails() {
+    //given
+    var entity = entity(InMemoryRepository.FAILING_ID);
+    //when
+    var result = repository.save(entity).onErrorResume(e -> Mono.empty()).block();
+    //then
+    assertThat(result).isNull();
+    verifyNoInteractions(eventService);
+  }
+
+  private ReactiveCrudRepository<TestEntity, String> proxy(
+      InMemoryRepository<TestEntity> target) {
+    var properties = new AuditProperties();
+    properties.getReactive().setBatchSize(2);
+    properties.getReactive().setLinger(Duration.ofSeconds(10));
+    properties.getChunk().setMaxEntities(2);
+    var proxyFactory = new AspectJProxyFactory(target);
+    proxyFactory.addAspect(new ReactiveAuditAspect(new AuditService(eventService), properties,
+        Schedulers.immediate()));
+    return proxyFactory.getProxy();
+  }
+
+  private TestEntity entity(String id) {
+    return TestEntity.builder().id(id).name("name").build();
+  }
+
+  /**
+   * Generic like Spring Data repositories, so its methods erase to the interface methods.
+   */
+  private static class InMemoryRepository<T> implements ReactiveCrudRepository<T, String> {
+
+    private static final String FAILING_ID = "failing";
+    private final Map<String, T> entities = new ConcurrentHashMap<>();
+
+    @Override
+    public <S extends T> Mono<S> save(S entity) {
+      return Mono.fromCallable(() -> {
+        var testEntity = (TestEntity) entity;
+        if (FAILING_ID.equals(testEntity.getId())) {
+          throw new IllegalStateException("Save failed");
+        }
+        testEntity.setLastModifiedDate(new Date());
+        entities.put(testEntity.getId(), entity);
+        return entity;
+      });
+    }
+
+    @Override
+    public <S extends T> Flux<S> saveAll(Iterable<S> entities) {
+      return Flux.fromIterable(entities).concatMap(this::save);
+    }
+
+    @Override
+    public <S extends T> Flux<S> saveAll(Publisher<S> entityStream) {
+      return Flux.from(entityStream).concatMap(this::save);
+    }
+
+    @Override
+    public Mono<T> findById(String id) {
+      return Mono.justOrEmpty(entities.get(id));
+    }
+
+    @Override
+    public Mono<T> findById(Publisher<String> id) {
+      return Mono.from(id).flatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(String id) {
+      return Mono.just(entities.containsKey(id));
+    }
+
+    @Override
+    public Mono<Boolean> existsById(Publisher<String> id) {
+      return Mono.from(id).flatMap(this::existsById);
+    }
+
+    @Override
+    public Flux<T> findAll() {
+      return Flux.fromIterable(entities.values());
+    }
+
+    @Override
+    public Flux<T> findAllById(Iterable<String> ids) {
+      return Flux.fromIterable(ids).concatMap(this::findById);
+    }
+
+    @Override
+    public Flux<T> findAllById(Publisher<String> idStream) {
+      return Flux.from(idStream).concatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Long> count() {
+      return Mono.just((long) entities.size());
+    }
+
+    @Override
+    public Mono<Void> deleteById(String id) {
+      return Mono.fromRunnable(() -> {
+        if (FAILING_ID.equals(id)) {
+          throw new IllegalStateException("Delete failed");
+        }
+        entities.remove(id);
+      });
+    }
+
+    @Override
+    public Mono<Void> deleteById(Publisher<String> id) {
+      return Mono.from(id).flatMap(this::deleteById);
+    }
+
+    @Override
+    public Mono<Void> delete(T entity) {
+      return deleteById(((TestEntity) entity).getId());
+    }
+
+    @Override
+    public Mono<Void> deleteAllById(Iterable<? extends String> ids) {
+      return Flux.fromIterable(ids).concatMap(this::deleteById).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Iterable<? extends T> entities) {
+      return Flux.fromIterable(entities).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(Publisher<? extends T> entityStream) {
+      return Flux.from(entityStream).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+      return Mono.fromRunnable(entities::clear);
+    }
+  }
+}
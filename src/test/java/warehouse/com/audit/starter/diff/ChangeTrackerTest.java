@@ -0,0 +1,125 @@
+package warehouse.com.audit.starter.diff;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import warehouse.com.audit.starter.entity.valid.ChangeTestAddress;
+import warehouse.com.audit.starter.entity.valid.ChangeTestEntity;
+import warehouse.com.audit.starter.entity.valid.TestEntity;
+
+class ChangeTrackerTest {
+
+  private final ChangeTracker changeTracker = new ChangeTracker();
+
+  @Test
+  void shouldReturnChangedFields() {
+    //given
+    var entity = entity("1");
+    changeTracker.snapshot(entity);
+    entity.setName("renamed");
+    entity.setQuantity(7);
+    //when
+    var changes = changeTracker.changes(List.of(entity));
+    //then
+    assertThat(changes).containsOnlyKeys(entity);
+    assertThat(changes.get(entity)).containsExactly("name", "quantity");
+  }
+
+  @Test
+  void shouldDetectInPlaceCollectionChange() {
+    //given
+    var entity = entity("1");
+    changeTracker.snapshot(List.of(entity));
+    entity.getTags().add("new");
+    //when
+    var changes = changeTracker.changes(List.of(entity));
+    //then
+    assertThat(changes.get(entity)).containsExactly("tags");
+  }
+
+  @Test
+  void shouldDetectInPlaceNestedCollectionChange() {
+    //given
+    var entity = entity("1");
+    entity.setAttributes(new HashMap<>(Map.of("colors", new ArrayList<>(List.of("red")))));
+    changeTracker.snapshot(entity);
+    var unchanged = changeTracker.changes(List.of(entity));
+    entity.getAttributes().get("colors").add("blue");
+    //when
+    var changes = changeTracker.changes(List.of(entity));
+    //then
+    assertThat(unchanged.get(entity)).isEmpty();
+    assertThat(changes.get(entity)).containsExactly("attributes");
+  }
+
+  @Test
+  void shouldDetectInPlaceEmbeddedObjectChange() {
+    //given
+    var entity = entity("1");
+    entity.setAddress(new ChangeTestAddress("main", entity));
+    entity.setPreviousAddresses(new HashSet<>(Set.of(new ChangeTestAddress("old", null))));
+    changeTracker.snapshot(entity);
+    var unchanged = changeTracker.changes(List.of(entity));
+    entity.getAddress().setStreet("side");
+    entity.getPreviousAddresses().iterator().next().setStreet("older");
+    //when
+    var changes = changeTracker.changes(List.of(entity));
+    //then
+    assertThat(unchanged.get(entity)).isEmpty();
+    assertThat(changes.get(entity)).containsExactly("address", "previousAddresses");
+  }
+
+  @Test
+  void shouldIgnoreAuditingVersionAndTransientFields() {
+    //given
+    var entity = entity("1");
+    changeTracker.snapshot(entity);
+    entity.setLastModifiedDate(new Date(1));
+    entity.setVersion(2L);
+    entity.setCached("cached");
+    //when
+    var changes = changeTracker.changes(List.of(entity));
+    //then
+    assertThat(changes.get(entity)).isEmpty();
+  }
+
+  @Test
+  void shouldReturnNullWithoutSnapshot() {
+    //given
+    var entity = entity("1");
+    changeTracker.snapshot(entity("2"));
+    //when
+    var changes = changeTracker.changes(List.of(entity));
+    //then
+    assertThat(changes).isNull();
+  }
+
+  @Test
+  void shouldNotTrackEntityWithoutCaptureChanges() {
+    //given
+    var entity = TestEntity.builder().id("1").name("name").build();
+    changeTracker.snapshot(entity);
+    entity.setName("renamed");
+    //when
+    var changes = changeTracker.changes(List.of(entity));
+    //then
+    assertThat(changeTracker.isTracked(TestEntity.class)).isFalse();
+    assertThat(changes).isNull();
+  }
+
+  private ChangeTestEntity entity(String id) {
+    return ChangeTestEntity.builder()
+        .id(id)
+        .name("name")
+        .quantity(1)
+        .tags(new ArrayList<>(List.of("a")))
+        .build();
+  }
+}
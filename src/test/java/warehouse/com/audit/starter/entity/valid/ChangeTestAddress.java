@@ -0,0 +1,15 @@
+package warehouse.com.audit.starter.entity.valid;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Embedded value object of {@link ChangeTestEntity}.
+ */
+@Data
+@AllArgsConstructor
+public class ChangeTestAddress {
+
+  private String street;
+  private ChangeTestEntity owner;
+}
@@ -0,0 +1,35 @@
+package warehouse.com.audit.starter.entity.valid;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import warehouse.com.audit.starter.annotation.AuditableEntity;
+import warehouse.com.audit.starter.annotation.AuditableId;
+import warehouse.com.audit.starter.annotation.AuditableName;
+
+@Data
+@Builder
+@AuditableEntity(entityType = ChangeTestEntity.CHANGE_ENTITY_TYPE, captureChanges = true)
+public class ChangeTestEntity {
+
+  public static final String CHANGE_ENTITY_TYPE = "change";
+  @AuditableId
+  private String id;
+  @AuditableName
+  private String name;
+  @LastModifiedDate
+  private Date lastModifiedDate;
+  @Version
+  private Long version;
+  private int quantity;
+  private List<String> tags;
+  private Map<String, List<String>> attributes;
+  private ChangeTestAddress address;
+  private Set<ChangeTestAddress> previousAddresses;
+  private transient String cached;
+}
@@ -0,0 +1,23 @@
+package warehouse.com.audit.starter.entity.valid;
+
+import java.util.Date;
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.annotation.LastModifiedDate;
+import warehouse.com.audit.starter.annotation.AuditableEntity;
+import warehouse.com.audit.starter.annotation.AuditableId;
+import warehouse.com.audit.starter.annotation.AuditableName;
+
+@Data
+@Builder
+@AuditableEntity(entityType = NumericIdTestEntity.NUMERIC_TYPE)
+public class NumericIdTestEntity {
+
+  public static final String NUMERIC_TYPE = "numeric";
+  @AuditableId
+  private long id;
+  @AuditableName
+  private String name;
+  @LastModifiedDate
+  private Date lastModifiedDate;
+}
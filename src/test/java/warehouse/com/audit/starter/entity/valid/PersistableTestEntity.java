@@ -0,0 +1,26 @@
+package warehouse.com.audit.starter.entity.valid;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.domain.Persistable;
+import warehouse.com.audit.starter.annotation.AuditableEntity;
+import warehouse.com.audit.starter.annotation.AuditableId;
+import warehouse.com.audit.starter.annotation.AuditableName;
+
+@Data
+@Builder
+@AuditableEntity(entityType = PersistableTestEntity.PERSISTABLE_TYPE)
+public class PersistableTestEntity implements Persistable<String> {
+
+  public static final String PERSISTABLE_TYPE = "persistable";
+  @AuditableId
+  private String id;
+  @AuditableName
+  private String name;
+  private boolean isNew;
+
+  @Override
+  public boolean isNew() {
+    return isNew;
+  }
+}
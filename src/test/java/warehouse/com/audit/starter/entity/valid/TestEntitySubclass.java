@@ -0,0 +1,11 @@
+package warehouse.com.audit.starter.entity.valid;
+
+/**
+ * Runtime subclass of an entity, like a proxy created by a persistence provider.
+ */
+public class TestEntitySubclass extends TestEntity {
+
+  public TestEntitySubclass(String id) {
+    super(id, null, null, null);
+  }
+}
@@ -0,0 +1,86 @@
+package warehouse.com.audit.starter.metadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import lombok.Getter;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.junit.jupiter.api.Test;
+
+class AuditableAccessorsTest {
+
+  private static final String ID = "id";
+
+  @Test
+  void shouldReadFieldThroughGetter() {
+    //given
+    var accessor = AuditableAccessors.forField(GetterEntity.class,
+        FieldUtils.getField(GetterEntity.class, "id", true));
+    //when
+    var value = accessor.get(new GetterEntity());
+    //then
+    assertThat(value).isEqualTo(ID.toUpperCase());
+  }
+
+  @Test
+  void shouldReadPrivateFieldWithoutGetter() {
+    //given
+    var accessor = AuditableAccessors.forField(PrivateEntity.class,
+        FieldUtils.getField(PrivateEntity.class, "id", true));
+    //when
+    var value = accessor.get(new PrivateEntity());
+    //then
+    assertThat(value).isEqualTo(ID);
+  }
+
+  @Test
+  void shouldReadInheritedField() {
+    //given
+    var accessor = AuditableAccessors.forField(ChildEntity.class,
+        FieldUtils.getField(ChildEntity.class, "id", true));
+    //when
+    var value = accessor.get(new ChildEntity());
+    //then
+    assertThat(value).isEqualTo(ID);
+  }
+
+  @Test
+  void shouldBoxPrimitiveMethodResult() throws NoSuchMethodException {
+    //given
+    var accessor = AuditableAccessors.forMethod(
+        PrimitiveEntity.class.getDeclaredMethod("getNumber"));
+    //when
+    var value = accessor.get(new PrimitiveEntity());
+    //then
+    assertThat(value).isEqualTo(42L);
+  }
+
+  static class GetterEntity {
+
+    private final String id = ID;
+
+    public String getId() {
+      return id.toUpperCase();
+    }
+  }
+
+  static class PrivateEntity {
+
+    private final String id = ID;
+  }
+
+  @Getter
+  static class ParentEntity {
+
+    private final String id = ID;
+  }
+
+  static class ChildEntity extends ParentEntity {
+  }
+
+  static class PrimitiveEntity {
+
+    private long getNumber() {
+      return 42L;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package warehouse.com.audit.starter.metadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static warehouse.com.audit.starter.metadata.AuditableEntityIndex.AUDITABLE_ID;
+import static warehouse.com.audit.starter.metadata.AuditableEntityIndex.AUDITABLE_NAME;
+import static warehouse.com.audit.starter.metadata.AuditableEntityIndex.AUDITABLE_TYPE;
+import static warehouse.com.audit.starter.metadata.AuditableEntityIndex.LAST_MODIFIED_DATE;
+
+import org.junit.jupiter.api.Test;
+import warehouse.com.audit.starter.entity.valid.MethodTypeTestEntity;
+import warehouse.com.audit.starter.entity.valid.TestEntity;
+
+class AuditableEntityIndexTest {
+
+  private final AuditableEntityIndex index =
+      AuditableEntityIndex.load(AuditableEntityIndexTest.class.getClassLoader());
+
+  @Test
+  void shouldIndexCompiledEntities() {
+    //when
+    var entry = index.get(TestEntity.class.getName());
+    //then
+    assertThat(entry).isNotNull();
+    assertThat(entry.field(AUDITABLE_ID)).isEqualTo("id");
+    assertThat(entry.field(AUDITABLE_NAME)).isEqualTo("name");
+    assertThat(entry.field(LAST_MODIFIED_DATE)).isEqualTo("lastModifiedDate");
+  }
+
+  @Test
+  void shouldIndexAnnotatedMethods() {
+    //when
+    var entry = index.get(MethodTypeTestEntity.class.getName());
+    //then
+    assertThat(entry.method(AUDITABLE_NAME)).isEqualTo("getEntityName");
+    assertThat(entry.method(AUDITABLE_TYPE)).isEqualTo("getEntityType");
+    assertThat(entry.field(AUDITABLE_NAME)).isNull();
+  }
+
+  @Test
+  void shouldFilterClassNamesByPackage() {
+    //when
+    var classNames = index.getClassNames("warehouse.com.audit.starter.entity.valid");
+    //then
+    assertThat(classNames)
+        .contains(TestEntity.class.getName())
+        .noneMatch(name -> name.contains(".invalid."));
+  }
+
+  @Test
+  void shouldParseLine() {
+    //when
+    var entry = AuditableEntityIndex.parse(
+        "a.B auditableId=field:code auditableName=method:getTitle");
+    //then
+    assertThat(entry.className()).isEqualTo("a.B");
+    assertThat(entry.field(AUDITABLE_ID)).isEqualTo("code");
+    assertThat(entry.method(AUDITABLE_NAME)).isEqualTo("getTitle");
+    assertThat(entry.method(AUDITABLE_ID)).isNull();
+  }
+}
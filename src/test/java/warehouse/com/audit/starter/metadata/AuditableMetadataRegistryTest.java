@@ -0,0 +1,91 @@
+package warehouse.com.audit.starter.metadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static warehouse.com.audit.starter.entity.valid.MethodTypeTestEntity.METHOD_TYPE;
+import static warehouse.com.audit.starter.entity.valid.TestEntity.TEST_ENTITY_TYPE;
+
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import warehouse.com.audit.starter.entity.valid.MethodTestEntity;
+import warehouse.com.audit.starter.entity.valid.MethodTypeTestEntity;
+import warehouse.com.audit.starter.entity.valid.TestEntity;
+import warehouse.com.audit.starter.exception.AuditInitializationException;
+
+class AuditableMetadataRegistryTest {
+
+  private static final String ID = "id";
+  private static final String NAME = "name";
+
+  private final AuditableMetadataRegistry registry = new AuditableMetadataRegistry();
+
+  @Test
+  void shouldReturnSameMetadataForSameClass() {
+    //when
+    var first = registry.get(TestEntity.class);
+    var second = registry.get(TestEntity.class);
+    //then
+    assertThat(first).isSameAs(second);
+  }
+
+  @Test
+  void shouldReadFieldAnnotatedValues() {
+    //given
+    var entity = TestEntity.builder().id(ID).name(NAME).build();
+    //when
+    var metadata = registry.get(TestEntity.class);
+    //then
+    assertThat(metadata.isAuditable()).isTrue();
+    assertThat(metadata.getId(entity)).isEqualTo(ID);
+    assertThat(metadata.getName(entity)).isEqualTo(NAME);
+    assertThat(metadata.getEntityType(entity)).isEqualTo(TEST_ENTITY_TYPE);
+  }
+
+  @Test
+  void shouldReadMethodAnnotatedValues() {
+    //given
+    var entity = MethodTypeTestEntity.builder().id(ID).name(NAME).build();
+    //when
+    var metadata = registry.get(MethodTypeTestEntity.class);
+    //then
+    assertThat(metadata.getName(entity)).isEqualTo(NAME);
+    assertThat(metadata.getEntityType(entity)).isEqualTo(METHOD_TYPE);
+  }
+
+  @Test
+  void shouldResolvePersistenceFields() {
+    //given
+    var date = new Date();
+    var entity = MethodTestEntity.builder().id(ID).lastModifiedDate(date).build();
+    //when
+    var metadata = registry.get(MethodTestEntity.class);
+    //then
+    assertThat(metadata.hasLastModifiedDate()).isTrue();
+    assertThat(metadata.getLastModifiedDate().get(entity)).isEqualTo(date);
+    assertThat(metadata.hasId()).isFalse();
+  }
+
+  @Test
+  void shouldValidateAuditableEntityMissingFromIndex() {
+    //given
+    var incomplete = new AuditableMetadataRegistry(AuditableEntityIndex.of(List.of(
+        AuditableEntityIndex.parse(TestEntity.class.getName() + " auditableId=field:id"))));
+    //then
+    assertThat(incomplete.get(TestEntity.class).isAuditable()).isTrue();
+    assertThatThrownBy(() -> incomplete.get(
+        warehouse.com.audit.starter.entity.invalid.id.TestEntity.class))
+        .isInstanceOf(AuditInitializationException.class)
+        .hasMessageContaining("AuditableId");
+  }
+
+  @Test
+  void shouldReturnEmptyMetadataWhenNotAuditable() {
+    //when
+    var metadata = registry.get(Object.class);
+    //then
+    assertThat(metadata.isAuditable()).isFalse();
+    assertThat(metadata.getAnnotation()).isNull();
+    assertThat(metadata.getId(new Object())).isNull();
+  }
+}
@@ -0,0 +1,78 @@
+package warehouse.com.audit.starter.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+import static warehouse.com.audit.starter.common.Constants.CREATED;
+import static warehouse.com.audit.starter.common.Constants.UPDATED;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+class AuditMetricsTest {
+
+  private static final String ENTITY_TYPE = "device";
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final AuditMetrics metrics = new AuditMetrics(registry);
+
+  @Test
+  void shouldCountEventsPerEntityTypeAndAction() {
+    //when
+    metrics.recordEvent(ENTITY_TYPE, UPDATED, 3);
+    metrics.recordEvent(ENTITY_TYPE, UPDATED, 1);
+    metrics.recordEvent(ENTITY_TYPE, CREATED, 1);
+    //then
+    assertThat(registry.get("audit.events").tag("action", UPDATED).counter().count())
+        .isEqualTo(2);
+    assertThat(registry.get("audit.events").tag("action", CREATED).counter().count())
+        .isEqualTo(1);
+    assertThat(registry.get("audit.event.entities").tag("entityType", ENTITY_TYPE).summary()
+        .totalAmount()).isEqualTo(5);
+  }
+
+  @Test
+  void shouldTagUnknownEntityType() {
+    //when
+    metrics.recordFailure(null);
+    //then
+    assertThat(registry.get("audit.publish.failures").tag("entityType", "unknown").counter()
+        .count()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldCountDroppedEventsPerEntityType() {
+    //when
+    metrics.recordDropped(ENTITY_TYPE);
+    metrics.recordDropped(ENTITY_TYPE);
+    //then
+    assertThat(registry.get("audit.events.dropped").tag("entityType", ENTITY_TYPE).counter()
+        .count()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldRecordStagesAndQueueDepth() {
+    //when
+    metrics.recordExtraction(1_000);
+    metrics.recordPublish(2_000);
+    metrics.recordSaveAdvice(3_000);
+    metrics.registerQueue("async", () -> 7);
+    //then
+    assertThat(registry.get("audit.stage").tag("stage", "extraction").timer().count())
+        .isEqualTo(1);
+    assertThat(registry.get("audit.stage").tag("stage", "publish").timer().count()).isEqualTo(1);
+    assertThat(registry.get("audit.advice").tag("operation", "save").timer().count())
+        .isEqualTo(1);
+    assertThat(registry.get("audit.queue.depth").tag("queue", "async").gauge().value())
+        .isEqualTo(7);
+  }
+
+  @Test
+  void shouldIgnoreRecordingWithoutRegistry() {
+    assertThatNoException().isThrownBy(() -> {
+      AuditMetrics.NOOP.recordEvent(ENTITY_TYPE, UPDATED, 1);
+      AuditMetrics.NOOP.recordFailure(ENTITY_TYPE);
+      AuditMetrics.NOOP.recordDropped(ENTITY_TYPE);
+      AuditMetrics.NOOP.registerQueue("async", () -> 1);
+    });
+  }
+}
@@ -0,0 +1,180 @@
+package warehouse.com.audit.starter.policy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.audit.starter.config.AuditProperties.PublishMode;
+import warehouse.com.audit.starter.config.AuditProperties.SamplingType;
+
+class AuditPoliciesTest {
+
+  private static final String DEVICE = "device";
+  private static final String UPDATED = "updated";
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void shouldMergeActionRuleIntoEntityTypeRule() {
+    //given
+    var properties = new AuditProperties.Policies();
+    var typeRule = rule(null, false, null);
+    typeRule.setPublishMode(PublishMode.AFTER_COMMIT);
+    properties.setRules(List.of(typeRule, rule(UPDATED, true, "modified")));
+    var policies = new AuditPolicies(properties);
+    //when
+    var updated = policies.resolve(DEVICE, UPDATED);
+    var created = policies.resolve(DEVICE, "created");
+    var other = policies.resolve("asset", UPDATED);
+    //then
+    assertThat(updated).isEqualTo(new AuditPolicy(true, "modified", PublishMode.AFTER_COMMIT));
+    assertThat(created).isEqualTo(new AuditPolicy(false, null, PublishMode.AFTER_COMMIT));
+    assertThat(other).isSameAs(AuditPolicy.DEFAULT);
+  }
+
+  @Test
+  void shouldReloadReplacedRules() {
+    //given
+    var properties = new AuditProperties.Policies();
+    properties.setRules(List.of(rule(UPDATED, false, null)));
+    var policies = new AuditPolicies(properties);
+    var disabled = policies.resolve(DEVICE, UPDATED).enabled();
+    //when
+    properties.setRules(List.of(rule(UPDATED, true, null)));
+    var enabled = policies.resolve(DEVICE, UPDATED).enabled();
+    //then
+    assertThat(disabled).isFalse();
+    assertThat(enabled).isTrue();
+  }
+
+  @Test
+  void shouldKeepPreviousRulesWhenReloadedRulesAreInvalid() {
+    //given
+    var properties = new AuditProperties.Policies();
+    properties.setRules(List.of(rule(UPDATED, false, null)));
+    var policies = new AuditPolicies(properties);
+    //when
+    var invalid = rule(UPDATED, true, null);
+    invalid.setEntityType(null);
+    properties.setRules(List.of(invalid));
+    //then
+    assertThat(policies.resolve(DEVICE, UPDATED).enabled()).isFalse();
+  }
+
+  @Test
+  void shouldApplyRulesOfChangedPolicyFile() throws Exception {
+    //given
+    var file = directory.resolve("audit-policies.yml");
+    Files.writeString(file, """
+        rules:
+          - entity-type: device
+            action: updated
+            enabled: false
+        """);
+    var properties = new AuditProperties.Policies();
+    properties.setRules(List.of(rule(UPDATED, true, "modified")));
+    properties.setFile(file);
+    var policies = new AuditPolicies(properties);
+    var fromFile = policies.resolve(DEVICE, UPDATED);
+    //when
+    Files.writeString(file, """
+        rules:
+          - entity-type: device
+            action-name: changed
+        """);
+    Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 1_000));
+    policies.reload();
+    var reloaded = policies.resolve(DEVICE, UPDATED);
+    policies.destroy();
+    //then
+    assertThat(fromFile).isEqualTo(new AuditPolicy(false, "modified", null));
+    assertThat(reloaded).isEqualTo(new AuditPolicy(true, "modified", null));
+    assertThat(policies.resolve(DEVICE, "deleted").actionOr("deleted")).isEqualTo("changed");
+  }
+
+  @Test
+  void shouldPreferActionSamplingOverEntityTypeSampling() {
+    //given
+    var properties = new AuditProperties.Policies();
+    properties.setRules(List.of(
+        sampled(null, sampling(SamplingType.SAMPLE, 0)),
+        sampled(UPDATED, sampling(SamplingType.SAMPLE, 1)),
+        rule("deleted", true, null)));
+    var policies = new AuditPolicies(properties);
+    //when
+    //then
+    assertThat(policies.resolve(DEVICE, UPDATED).tryAcquire()).isTrue();
+    assertThat(policies.resolve(DEVICE, "created").tryAcquire()).isFalse();
+    assertThat(policies.resolve(DEVICE, "deleted").tryAcquire()).isFalse();
+    assertThat(policies.resolve("asset", UPDATED).tryAcquire()).isTrue();
+  }
+
+  @Test
+  void shouldReloadReplacedSamplingAndKeepStateOfUnchanged() {
+    //given
+    var properties = new AuditProperties.Policies();
+    properties.setRules(List.of(sampled(UPDATED, firstN(1))));
+    var policies = new AuditPolicies(properties);
+    policies.resolve(DEVICE, UPDATED).tryAcquire();
+    //when
+    properties.setRules(new ArrayList<>(List.of(sampled(UPDATED, firstN(1)))));
+    var unchanged = policies.resolve(DEVICE, UPDATED).tryAcquire();
+    properties.setRules(List.of(sampled(UPDATED, firstN(5))));
+    var changed = policies.resolve(DEVICE, UPDATED).tryAcquire();
+    //then
+    assertThat(unchanged).isFalse();
+    assertThat(changed).isTrue();
+  }
+
+  @Test
+  void shouldKeepPreviousSamplingWhenReloadedSamplingIsInvalid() {
+    //given
+    var properties = new AuditProperties.Policies();
+    properties.setRules(List.of(sampled(null, sampling(SamplingType.SAMPLE, 0))));
+    var policies = new AuditPolicies(properties);
+    //when
+    properties.setRules(List.of(sampled(null, sampling(SamplingType.SAMPLE, 2))));
+    policies.reload();
+    //then
+    assertThat(policies.resolve(DEVICE, UPDATED).tryAcquire()).isFalse();
+  }
+
+  private AuditProperties.Rule rule(String action, boolean enabled, String actionName) {
+    var rule = new AuditProperties.Rule();
+    rule.setEntityType(DEVICE);
+    rule.setAction(action);
+    rule.setEnabled(enabled);
+    rule.setActionName(actionName);
+    return rule;
+  }
+
+  private AuditProperties.Rule sampled(String action, AuditProperties.Sampling sampling) {
+    var rule = new AuditProperties.Rule();
+    rule.setEntityType(DEVICE);
+    rule.setAction(action);
+    rule.setSampling(sampling);
+    return rule;
+  }
+
+  private AuditProperties.Sampling firstN(int limit) {
+    var sampling = sampling(SamplingType.FIRST_N, 1);
+    sampling.setLimit(limit);
+    sampling.setWindow(Duration.ofHours(1));
+    return sampling;
+  }
+
+  private AuditProperties.Sampling sampling(SamplingType type, double probability) {
+    var sampling = new AuditProperties.Sampling();
+    sampling.setType(type);
+    sampling.setProbability(probability);
+    return sampling;
+  }
+}
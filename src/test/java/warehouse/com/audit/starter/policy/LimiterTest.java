@@ -0,0 +1,39 @@
+package warehouse.com.audit.starter.policy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class LimiterTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  @Test
+  void shouldLetThroughBurstAndRefillAtRate() {
+    //given
+    var bucket = new Limiter.TokenBucket(2, 3);
+    //when
+    var burst = IntStream.range(0, 4).filter(i -> bucket.tryAcquire(0)).count();
+    var afterHalfSecond = bucket.tryAcquire(SECOND / 2);
+    var again = bucket.tryAcquire(SECOND / 2);
+    //then
+    assertThat(burst).isEqualTo(3);
+    assertThat(afterHalfSecond).isTrue();
+    assertThat(again).isFalse();
+  }
+
+  @Test
+  void shouldLetThroughFirstEventsOfWindow() {
+    //given
+    var limiter = new Limiter.FirstInWindow(2, SECOND);
+    var now = System.nanoTime();
+    //when
+    var first = IntStream.range(0, 5).filter(i -> limiter.tryAcquire(now)).count();
+    var next = IntStream.range(0, 5).filter(i -> limiter.tryAcquire(now + SECOND)).count();
+    //then
+    assertThat(first).isEqualTo(2);
+    assertThat(next).isEqualTo(2);
+  }
+}
@@ -0,0 +1,110 @@
+package warehouse.com.audit.starter.publisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.audit.starter.config.AuditProperties.OverflowPolicy;
+import warehouse.com.audit.starter.metrics.AuditMetrics;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+class AsyncAuditEventPublisherTest {
+
+  private final List<String> published = new CopyOnWriteArrayList<>();
+  private final List<String> threads = new CopyOnWriteArrayList<>();
+
+  @Test
+  void shouldPublishOffCallerThreadAndDrainOnDestroy() throws Exception {
+    //given
+    var publisher = new AsyncAuditEventPublisher(this::record, properties(OverflowPolicy.BLOCK, 10),
+        AuditMetrics.NOOP);
+    //when
+    publisher.publish(event("1"));
+    publisher.publish(event("2"));
+    publisher.destroy();
+    //then
+    assertThat(published).containsExactly("1", "2");
+    assertThat(threads).doesNotContain(Thread.currentThread().getName());
+  }
+
+  @Test
+  void shouldDropOldestWhenQueueIsFull() throws Exception {
+    //given
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var registry = new SimpleMeterRegistry();
+    var publisher = new AsyncAuditEventPublisher(event -> {
+      if ("blocking".equals(event.getAction())) {
+        started.countDown();
+        await(release);
+      }
+      record(event);
+    }, properties(OverflowPolicy.DROP_OLDEST, 1), new AuditMetrics(registry));
+    publisher.publish(event("blocking"));
+    started.await();
+    //when
+    publisher.publish(event("1"));
+    publisher.publish(event("2"));
+    release.countDown();
+    publisher.destroy();
+    //then
+    assertThat(published).containsExactly("blocking", "2");
+    assertThat(publisher.getDroppedCount()).isEqualTo(1);
+    assertThat(registry.get("audit.events.dropped").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldPublishOnCallerThreadWhenQueueIsFull() throws Exception {
+    //given
+    var started = new CountDownLatch(1);
+    var release = new CountDownLatch(1);
+    var publisher = new AsyncAuditEventPublisher(event -> {
+      if ("blocking".equals(event.getAction())) {
+        started.countDown();
+        await(release);
+      }
+      record(event);
+    }, properties(OverflowPolicy.CALLER_RUNS, 1), AuditMetrics.NOOP);
+    publisher.publish(event("blocking"));
+    started.await();
+    publisher.publish(event("1"));
+    //when
+    publisher.publish(event("2"));
+    release.countDown();
+    publisher.destroy();
+    //then
+    assertThat(published).containsExactly("2", "blocking", "1");
+    assertThat(threads.get(0)).isEqualTo(Thread.currentThread().getName());
+  }
+
+  private void record(AuditEvent event) {
+    published.add(event.getAction());
+    threads.add(Thread.currentThread().getName());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static AuditEvent event(String action) {
+    return AuditEvent.builder().action(action).build();
+  }
+
+  private static AuditProperties.Async properties(OverflowPolicy overflow, int capacity) {
+    var async = new AuditProperties.Async();
+    async.setEnabled(true);
+    async.setOverflow(overflow);
+    async.setQueueCapacity(capacity);
+    async.setShutdownTimeout(Duration.ofSeconds(5));
+    return async;
+  }
+}
@@ -0,0 +1,155 @@
+package warehouse.com.audit.starter.publisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static warehouse.com.audit.starter.common.Constants.DELETED;
+import static warehouse.com.audit.starter.common.Constants.UPDATED;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+class AuditEventCoalescerTest {
+
+  private static final String ENTITY_TYPE = "device";
+
+  private final List<AuditEvent> published = new CopyOnWriteArrayList<>();
+
+  @Test
+  void shouldMergeRepeatedEventsWithinWindow() throws InterruptedException {
+    //given
+    var coalescer = new AuditEventCoalescer(published::add, properties(Duration.ofMillis(50)));
+    //when
+    var first = coalescer.offer(event("1", UPDATED, 1_000), null);
+    coalescer.offer(event("1", UPDATED, 2_000), null);
+    coalescer.offer(event("1", UPDATED, 3_000), null);
+    awaitPublished(1);
+    //then
+    assertThat(first).isTrue();
+    assertThat(published).hasSize(1);
+    assertThat(published.get(0).getTimestamp()).isEqualTo(new Date(3_000));
+    assertThat(published.get(0).getDescription())
+        .isEqualTo("3 updated events coalesced from 1970-01-01T00:00:01Z to 1970-01-01T00:00:03Z");
+  }
+
+  @Test
+  void shouldPublishPendingEventWhenActionChanges() {
+    //given
+    var coalescer = new AuditEventCoalescer(published::add, properties(Duration.ofMinutes(1)));
+    var updated = event("1", UPDATED, 1_000);
+    coalescer.offer(updated, null);
+    //when
+    coalescer.offer(event("1", DELETED, 2_000), null);
+    //then
+    assertThat(published).containsExactly(updated);
+    coalescer.destroy();
+    assertThat(published).hasSize(2);
+    assertThat(published.get(1).getAction()).isEqualTo(DELETED);
+  }
+
+  @Test
+  void shouldKeepEntitiesSeparate() {
+    //given
+    var coalescer = new AuditEventCoalescer(published::add, properties(Duration.ofMinutes(1)));
+    coalescer.offer(event("1", UPDATED, 1_000), null);
+    coalescer.offer(event("2", UPDATED, 2_000), null);
+    //when
+    coalescer.destroy();
+    //then
+    assertThat(published).hasSize(2);
+  }
+
+  @Test
+  void shouldNotHoldBackNotCoalescedEntityType() {
+    //given
+    var coalescer = new AuditEventCoalescer(published::add, new AuditProperties.Coalesce());
+    //when
+    var held = coalescer.offer(event("1", UPDATED, 1_000), null);
+    //then
+    assertThat(held).isFalse();
+    assertThat(published).isEmpty();
+  }
+
+  @Test
+  void shouldPublishHeldEventsBeforeEventOfSeveralEntities() {
+    //given
+    var coalescer = new AuditEventCoalescer(published::add, properties(Duration.ofMinutes(1)));
+    var held = event("1", UPDATED, 1_000);
+    coalescer.offer(held, null);
+    coalescer.offer(event("3", UPDATED, 1_000), null);
+    var batch = event(UPDATED, 2_000, "1", "2");
+    //when
+    var offered = coalescer.offer(batch, null);
+    //then
+    assertThat(offered).isFalse();
+    assertThat(published).containsExactly(held);
+    coalescer.destroy();
+    assertThat(published).hasSize(2);
+  }
+
+  @Test
+  void shouldKeepEventIdsAndDescriptionsOfMergedEvents() {
+    //given
+    var coalescer = new AuditEventCoalescer(published::add, properties(Duration.ofMinutes(1)));
+    var first = event("1", UPDATED, 1_000);
+    first.setEventId("a");
+    first.setDescription("1: name");
+    var second = event("1", UPDATED, 2_000);
+    second.setEventId("b");
+    second.setDescription("1: status");
+    coalescer.offer(first, null);
+    coalescer.offer(second, null);
+    //when
+    coalescer.destroy();
+    //then
+    assertThat(published).hasSize(1);
+    assertThat(published.get(0).getEventId()).isEqualTo("b");
+    assertThat(published.get(0).getDescription()).isEqualTo("2 updated events coalesced from "
+        + "1970-01-01T00:00:01Z to 1970-01-01T00:00:02Z (events a, b): 1: name; 1: status");
+  }
+
+  @Test
+  void shouldNotHoldBackEventsAfterDestroy() {
+    //given
+    var coalescer = new AuditEventCoalescer(published::add, properties(Duration.ofMinutes(1)));
+    coalescer.destroy();
+    //when
+    var held = coalescer.offer(event("1", UPDATED, 1_000), null);
+    //then
+    assertThat(held).isFalse();
+  }
+
+  private void awaitPublished(int count) throws InterruptedException {
+    var deadline = System.currentTimeMillis() + 5_000;
+    while (published.size() < count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+  }
+
+  private static AuditEvent event(String id, String action, long timestamp) {
+    return event(action, timestamp, id);
+  }
+
+  private static AuditEvent event(String action, long timestamp, String... ids) {
+    return AuditEvent.builder()
+        .action(action)
+        .entityType(ENTITY_TYPE)
+        .entities(Arrays.stream(ids)
+            .map(id -> AuditEvent.Entity.builder().id(id).build())
+            .collect(Collectors.toSet()))
+        .timestamp(new Date(timestamp))
+        .build();
+  }
+
+  private static AuditProperties.Coalesce properties(Duration window) {
+    var coalesce = new AuditProperties.Coalesce();
+    coalesce.setWindows(Map.of(ENTITY_TYPE, window));
+    return coalesce;
+  }
+}
@@ -0,0 +1,90 @@
+package warehouse.com.audit.starter.publisher;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import warehouse.com.eventstarter.model.AuditEvent;
+import warehouse.com.eventstarter.service.EventService;
+
+/**
+ * Test double of {@link EventService} that keeps the latest events in a ring buffer instead of
+ * sending them to Kafka. A publish can be delayed by a simulated latency and fail at a given rate,
+ * so the starter can be tested and load tested by the JMH suites without external services. No
+ * Kafka template is passed to the parent, every method using it is overridden.
+ */
+public class InMemoryEventService extends EventService {
+
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  private final AtomicReferenceArray<AuditEvent> ring;
+  private final int mask;
+  private final long latencyNanos;
+  private final double failureRate;
+  private final AtomicLong published = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+
+  public InMemoryEventService(int capacity) {
+    this(capacity, Duration.ZERO, 0);
+  }
+
+  /**
+   * Creates the event service.
+   *
+   * @param capacity    Number of retained events up to 2^30, rounded up to a power of two
+   * @param latency     Time a publish takes
+   * @param failureRate Share of publishes that fail between 0 and 1
+   */
+  public InMemoryEventService(int capacity, Duration latency, double failureRate) {
+    super(null);
+    if (capacity < 1 || capacity > MAX_CAPACITY || latency.isNegative() || failureRate < 0
+        || failureRate > 1) {
+      throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY
+          + ", latency not negative and failure rate between 0 and 1");
+    }
+    var size = Integer.highestOneBit(capacity * 2 - 1);
+    this.ring = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+    this.latencyNanos = latency.toNanos();
+    this.failureRate = failureRate;
+  }
+
+  @Override
+  public void publish(AuditEvent event) {
+    if (latencyNanos > 0) {
+      LockSupport.parkNanos(latencyNanos);
+    }
+    if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+      failed.incrementAndGet();
+      throw new IllegalStateException("Simulated audit event publishing failure");
+    }
+    ring.set((int) published.getAndIncrement() & mask, event);
+  }
+
+  public long getPublishedCount() {
+    return published.get();
+  }
+
+  public long getFailedCount() {
+    return failed.get();
+  }
+
+  /**
+   * Returns the retained events from the oldest to the latest.
+   */
+  public List<AuditEvent> getEvents() {
+    var count = published.get();
+    var size = (int) Math.min(count, ring.length());
+    var events = new ArrayList<AuditEvent>(size);
+    for (long sequence = count - size; sequence < count; sequence++) {
+      var event = ring.get((int) sequence & mask);
+      if (event != null) {
+        events.add(event);
+      }
+    }
+    return events;
+  }
+}
@@ -0,0 +1,64 @@
+package warehouse.com.audit.starter.publisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static warehouse.com.audit.starter.common.Constants.UPDATED;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import warehouse.com.audit.starter.entity.valid.TestEntity;
+import warehouse.com.audit.starter.service.AuditService;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+class InMemoryEventServiceTest {
+
+  @Test
+  void shouldRetainLatestEvents() {
+    //given
+    var eventService = new InMemoryEventService(3);
+    //when
+    IntStream.range(0, 6).forEach(i -> eventService.publish(event(String.valueOf(i))));
+    //then
+    assertThat(eventService.getPublishedCount()).isEqualTo(6);
+    assertThat(eventService.getEvents()).extracting(AuditEvent::getEventId)
+        .containsExactly("2", "3", "4", "5");
+  }
+
+  @Test
+  void shouldFailAtFailureRate() {
+    //given
+    var eventService = new InMemoryEventService(4, Duration.ZERO, 1);
+    //when
+    //then
+    assertThatThrownBy(() -> eventService.publish(event("1")))
+        .isInstanceOf(IllegalStateException.class);
+    assertThat(eventService.getFailedCount()).isEqualTo(1);
+    assertThat(eventService.getEvents()).isEmpty();
+  }
+
+  @Test
+  void shouldRejectCapacityAboveRingLimit() {
+    //then
+    assertThatThrownBy(() -> new InMemoryEventService((1 << 30) + 1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new InMemoryEventService(0))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldReceiveEventsOfAuditService() {
+    //given
+    var eventService = new InMemoryEventService(4);
+    var auditService = new AuditService(eventService);
+    //when
+    auditService.sendAuditEvent(TestEntity.builder().id("1").build(), UPDATED);
+    //then
+    assertThat(eventService.getEvents()).extracting(AuditEvent::getAction)
+        .containsExactly(UPDATED);
+  }
+
+  private AuditEvent event(String eventId) {
+    return AuditEvent.builder().eventId(eventId).build();
+  }
+}
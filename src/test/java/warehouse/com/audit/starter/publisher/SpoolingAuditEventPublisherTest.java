@@ -0,0 +1,160 @@
+package warehouse.com.audit.starter.publisher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.audit.starter.metrics.AuditMetrics;
+import warehouse.com.audit.starter.serializer.AuditEventSerializer;
+import warehouse.com.audit.starter.serializer.BinaryAuditEventSerializer;
+import warehouse.com.audit.starter.serializer.CompressingAuditEventSerializer;
+import warehouse.com.audit.starter.serializer.CompressionCodec;
+import warehouse.com.audit.starter.serializer.JsonAuditEventSerializer;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+class SpoolingAuditEventPublisherTest {
+
+  private final List<String> published = new CopyOnWriteArrayList<>();
+  private final AuditEventSerializer serializer = new BinaryAuditEventSerializer();
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void shouldForwardSpooledEvents() throws Exception {
+    //given
+    var publisher = new SpoolingAuditEventPublisher(this::record, properties(), serializer,
+        AuditMetrics.NOOP);
+    //when
+    publisher.publish(event("1"));
+    publisher.publish(event("2"));
+    publisher.destroy();
+    //then
+    assertThat(published).containsExactly("1", "2");
+    assertThat(publisher.getPendingCount()).isZero();
+  }
+
+  @Test
+  void shouldRetryFailedEvents() throws Exception {
+    //given
+    var failures = new AtomicInteger(2);
+    var publisher = new SpoolingAuditEventPublisher(event -> {
+      if (failures.getAndDecrement() > 0) {
+        throw new IllegalStateException("Kafka is not available");
+      }
+      record(event);
+    }, properties(), serializer, AuditMetrics.NOOP);
+    //when
+    publisher.publish(event("1"));
+    publisher.publish(event("2"));
+    publisher.destroy();
+    //then
+    assertThat(published).containsExactly("1", "2");
+  }
+
+  @Test
+  void shouldForwardEventsSpooledBeforeRestart() throws Exception {
+    //given
+    var properties = properties();
+    properties.setShutdownTimeout(Duration.ofMillis(50));
+    var unavailable = new SpoolingAuditEventPublisher(event -> {
+      throw new IllegalStateException("Kafka is not available");
+    }, properties, serializer, AuditMetrics.NOOP);
+    unavailable.publish(event("1"));
+    unavailable.destroy();
+    //when
+    var publisher = new SpoolingAuditEventPublisher(this::record, properties(), serializer,
+        AuditMetrics.NOOP);
+    publisher.destroy();
+    //then
+    assertThat(unavailable.getPendingCount()).isEqualTo(1);
+    assertThat(published).containsExactly("1");
+  }
+
+  @Test
+  void shouldForwardEventsSpooledWithPreviousSerializer() throws Exception {
+    //given
+    var properties = properties();
+    properties.setShutdownTimeout(Duration.ofMillis(50));
+    var compression = new AuditProperties.Compression();
+    compression.setCodec(CompressionCodec.LZ4);
+    compression.setThreshold(DataSize.ofBytes(0));
+    var unavailable = new SpoolingAuditEventPublisher(event -> {
+      throw new IllegalStateException("Kafka is not available");
+    }, properties, new CompressingAuditEventSerializer(serializer, compression),
+        AuditMetrics.NOOP);
+    unavailable.publish(event("1"));
+    unavailable.destroy();
+    //when
+    var publisher = new SpoolingAuditEventPublisher(this::record, properties(),
+        new JsonAuditEventSerializer(), AuditMetrics.NOOP);
+    publisher.publish(event("2"));
+    publisher.destroy();
+    //then
+    assertThat(published).containsExactly("1", "2");
+  }
+
+  @Test
+  void shouldCloseSpoolWhenForwarderIgnoresInterrupt() throws Exception {
+    //given
+    var properties = properties();
+    properties.setShutdownTimeout(Duration.ofMillis(50));
+    var release = new CountDownLatch(1);
+    var publisher = new SpoolingAuditEventPublisher(event -> {
+      while (true) {
+        try {
+          release.await();
+          return;
+        } catch (InterruptedException ignored) {
+          // keeps blocking like a client that swallows interrupts
+        }
+      }
+    }, properties, serializer, AuditMetrics.NOOP);
+    publisher.publish(event("1"));
+    //when
+    var started = System.nanoTime();
+    publisher.destroy();
+    var elapsed = Duration.ofNanos(System.nanoTime() - started);
+    var pending = publisher.getPendingCount();
+    release.countDown();
+    //then
+    assertThat(elapsed).isLessThan(Duration.ofSeconds(5));
+    assertThat(pending).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRequireAbsoluteDirectory() {
+    //given
+    var properties = properties();
+    properties.setDirectory(Path.of("audit-spool"));
+    //then
+    assertThatThrownBy(() -> new SpoolingAuditEventPublisher(this::record, properties, serializer,
+        AuditMetrics.NOOP)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private AuditProperties.Spool properties() {
+    var properties = new AuditProperties.Spool();
+    properties.setDirectory(directory);
+    properties.setSegmentSize(DataSize.ofKilobytes(4));
+    properties.setRetryBackoff(Duration.ofMillis(1));
+    properties.setShutdownTimeout(Duration.ofSeconds(5));
+    return properties;
+  }
+
+  private void record(AuditEvent event) {
+    published.add(event.getAction());
+  }
+
+  private AuditEvent event(String action) {
+    return AuditEvent.builder().entityType("test").action(action).build();
+  }
+}
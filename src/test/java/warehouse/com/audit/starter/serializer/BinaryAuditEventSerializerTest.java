@@ -0,0 +1,146 @@
+package warehouse.com.audit.starter.serializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+class BinaryAuditEventSerializerTest {
+
+  private final BinaryAuditEventSerializer serializer = new BinaryAuditEventSerializer();
+
+  @Test
+  void shouldDeserializeSerializedEvent() {
+    //given
+    var event = AuditEvent.builder()
+        .eventId("event")
+        .entityType("test")
+        .action("update")
+        .initiatorId("initiator")
+        .description("описание")
+        .timestamp(new Date())
+        .entities(Set.of(
+            entity("12", "first"),
+            entity("-7", null),
+            entity("007", "leading zero"),
+            entity("64f1a2b3c4d5e6f708091a2b", "object id"),
+            entity("64f1a2b3c4d5e6f708091a3c", null),
+            entity(null, "no id")))
+        .build();
+    //when
+    var deserialized = serializer.deserialize(serializer.serialize(event));
+    //then
+    assertThat(deserialized).isEqualTo(event);
+  }
+
+  @Test
+  void shouldDeserializeNumericIdsOfAnyRange() {
+    //given
+    var event = AuditEvent.builder()
+        .entities(Set.of(
+            entity("3", "close"),
+            entity("1", null),
+            entity("2", "close"),
+            entity("-999999999999999999", "far"),
+            entity("999999999999999999", "far")))
+        .build();
+    var close = AuditEvent.builder()
+        .entities(Set.of(entity("3", "close"), entity("1", null), entity("2", "close")))
+        .build();
+    //when
+    var deserialized = serializer.deserializeBatch(
+        serializer.serializeBatch(List.of(event, close)));
+    //then
+    assertThat(deserialized).containsExactly(event, close);
+  }
+
+  @Test
+  void shouldKeepNullValues() {
+    //given
+    var event = AuditEvent.builder().action("delete").build();
+    //when
+    var deserialized = serializer.deserialize(serializer.serialize(event));
+    //then
+    assertThat(deserialized).isEqualTo(event);
+  }
+
+  @Test
+  void shouldDeserializeBatch() {
+    //given
+    var timestamp = System.currentTimeMillis();
+    var events = IntStream.range(0, 3)
+        .mapToObj(i -> AuditEvent.builder()
+            .entityType("test")
+            .action(i % 2 == 0 ? "create" : "update")
+            .timestamp(new Date(timestamp - i * 1000L))
+            .entities(Set.of(entity(String.valueOf(1000 + i), "name")))
+            .build())
+        .toList();
+    //when
+    var deserialized = serializer.deserializeBatch(serializer.serializeBatch(events));
+    //then
+    assertThat(deserialized).isEqualTo(events);
+  }
+
+  @Test
+  void shouldBeSmallerThanJson() {
+    //given
+    var event = AuditEvent.builder()
+        .entityType("test")
+        .action("update")
+        .initiatorId("initiator")
+        .timestamp(new Date())
+        .entities(IntStream.range(0, 100)
+            .mapToObj(i -> entity(String.valueOf(100_000 + i), null))
+            .collect(Collectors.toCollection(HashSet::new)))
+        .build();
+    //when
+    var binary = serializer.serialize(event);
+    var json = new JsonAuditEventSerializer().serialize(event);
+    //then
+    assertThat(binary.length).isLessThan(json.length / 5);
+  }
+
+  @Test
+  void shouldRejectUnknownVersion() {
+    //then
+    assertThatThrownBy(() -> serializer.deserializeBatch(new byte[]{42, 0}))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldRejectCountsBeyondPayload() {
+    //given
+    var events = new byte[]{1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+    var entities = new byte[]{1, 1, 2, 0, 0, 0, 0, 0,
+        (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+    //then
+    assertThatThrownBy(() -> serializer.deserializeBatch(events))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> serializer.deserializeBatch(entities))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldRecognizeCanonicalNumericIds() {
+    //then
+    assertThat(BinaryAuditEventSerializer.numericId("0")).isZero();
+    assertThat(BinaryAuditEventSerializer.numericId("-15")).isEqualTo(-15);
+    assertThat(BinaryAuditEventSerializer.numericId("999999999999999999"))
+        .isEqualTo(999_999_999_999_999_999L);
+    assertThat(List.of("", "-", "-0", "01", "1a", "9999999999999999999"))
+        .allSatisfy(id -> assertThat(BinaryAuditEventSerializer.numericId(id))
+            .isEqualTo(BinaryAuditEventSerializer.NOT_NUMERIC));
+  }
+
+  private AuditEvent.Entity entity(String id, String name) {
+    return AuditEvent.Entity.builder().id(id).name(name).build();
+  }
+}
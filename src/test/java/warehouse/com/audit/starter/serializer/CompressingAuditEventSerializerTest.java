@@ -0,0 +1,106 @@
+package warehouse.com.audit.starter.serializer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.util.unit.DataSize;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+class CompressingAuditEventSerializerTest {
+
+  private final BinaryAuditEventSerializer binary = new BinaryAuditEventSerializer();
+
+  @ParameterizedTest
+  @EnumSource(value = CompressionCodec.class, names = {"LZ4", "ZSTD"})
+  void shouldCompressLargeEvents(CompressionCodec codec) {
+    //given
+    var serializer = new CompressingAuditEventSerializer(binary, properties(codec));
+    var event = event(1_000);
+    //when
+    var payload = serializer.serialize(event);
+    //then
+    assertThat(payload[0]).isEqualTo(CompressingAuditEventSerializer.MAGIC);
+    assertThat(payload[1]).isEqualTo(codec.getId());
+    assertThat(payload.length).isLessThan(binary.serialize(event).length / 2);
+    assertThat(serializer.deserialize(payload)).isEqualTo(event);
+  }
+
+  @Test
+  void shouldNotCompressEventsBelowThreshold() {
+    //given
+    var serializer = new CompressingAuditEventSerializer(binary,
+        properties(CompressionCodec.ZSTD));
+    var event = event(1);
+    //when
+    var payload = serializer.serialize(event);
+    //then
+    assertThat(payload).isEqualTo(binary.serialize(event));
+    assertThat(serializer.deserialize(payload)).isEqualTo(event);
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = CompressionCodec.class, names = {"LZ4", "ZSTD"})
+  void shouldRejectMalformedPayloads(CompressionCodec codec) {
+    //given
+    var properties = properties(codec);
+    properties.setMaxDecompressedSize(DataSize.ofKilobytes(1));
+    var serializer = new CompressingAuditEventSerializer(binary, properties);
+    var negative = header(codec, -1);
+    var tooLarge = header(codec, 1_025);
+    var garbage = Arrays.copyOf(header(codec, 1_000), 64);
+    Arrays.fill(garbage, CompressingAuditEventSerializer.HEADER_BYTES, garbage.length, (byte) 7);
+    //then
+    assertThatThrownBy(() -> serializer.deserialize(negative))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> serializer.deserialize(tooLarge))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> serializer.deserialize(garbage))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void shouldReadPayloadsWithoutHeader() {
+    //given
+    var serializer = new CompressingAuditEventSerializer(binary,
+        properties(CompressionCodec.LZ4));
+    var event = event(10);
+    //when
+    var deserialized = serializer.deserialize(binary.serialize(event));
+    //then
+    assertThat(deserialized).isEqualTo(event);
+  }
+
+  private AuditProperties.Compression properties(CompressionCodec codec) {
+    var properties = new AuditProperties.Compression();
+    properties.setCodec(codec);
+    return properties;
+  }
+
+  private byte[] header(CompressionCodec codec, int length) {
+    return new byte[]{CompressingAuditEventSerializer.MAGIC, codec.getId(), (byte) (length >>> 24),
+        (byte) (length >>> 16), (byte) (length >>> 8), (byte) length};
+  }
+
+  private AuditEvent event(int entities) {
+    return AuditEvent.builder()
+        .entityType("test")
+        .action("update")
+        .timestamp(new Date())
+        .entities(IntStream.range(0, entities)
+            .mapToObj(i -> AuditEvent.Entity.builder()
+                .id("64f1a2b3c4d5e6f7" + String.format("%08d", i))
+                .name("warehouse item " + i % 10)
+                .build())
+            .collect(Collectors.toCollection(HashSet::new)))
+        .build();
+  }
+}
@@ -3,11 +3,22 @@ package warehouse.com.audit.starter.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 import static warehouse.com.audit.starter.common.Constants.UPDATED;
 
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,9 +27,20 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.repository.core.EntityInformation;
+import org.springframework.data.repository.core.support.AbstractEntityInformation;
 import org.springframework.kafka.support.KafkaUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.util.unit.DataSize;
 import warehouse.com.audit.starter.annotation.AuditableEntity;
+import warehouse.com.audit.starter.config.AuditProperties;
+import warehouse.com.audit.starter.entity.valid.NumericIdTestEntity;
+import warehouse.com.audit.starter.entity.valid.PersistableTestEntity;
 import warehouse.com.audit.starter.entity.valid.TestEntity;
+import warehouse.com.audit.starter.entity.valid.TestEntitySubclass;
+import warehouse.com.audit.starter.policy.AuditPolicies;
 import warehouse.com.eventstarter.model.AuditEvent;
 import warehouse.com.eventstarter.service.EventService;
 
@@ -28,6 +50,11 @@ class AuditServiceTest {
   private static final String INITIATOR_ID = "initiatorId";
   private static final String TEST_PREFERRED_USER_NAME = "TestPreferredUserName";
   private static final String DESCRIPTION = "Description";
+  /**
+   * Loose bound that does not depend on JIT escape analysis, so it holds under coverage agents
+   * and before warm-up. Exact numbers are tracked by {@code EntityAllocationBenchmark}.
+   */
+  private static final long ALLOCATED_BYTES_PER_ENTITY = 256;
   private final TestEntity auditable = TestEntity.builder().build();
   private final Object nonAuditable = new Object();
   private final warehouse.com.audit.starter.entity.invalid.type.TestEntity invalidTypeAuditable = warehouse.com.audit.starter.entity.invalid.type.TestEntity.builder()
@@ -149,4 +176,459 @@ class AuditServiceTest {
     AuditEvent event = eventCaptor.getValue();
     assertThat(event.getEventId()).isNull();
   }
+
+  @Test
+  void shouldSplitLargeCollectionIntoChunks() {
+    //given
+    var properties = new AuditProperties();
+    properties.getChunk().setMaxEntities(2);
+    auditService.setProperties(properties);
+    var auditables = IntStream.range(0, 5)
+        .mapToObj(i -> TestEntity.builder().id(String.valueOf(i)).build())
+        .toList();
+    //when
+    auditService.sendAuditEvent(auditables, UPDATED);
+    //then
+    verify(eventService, times(3)).publish(eventCaptor.capture());
+    var events = eventCaptor.getAllValues();
+    var correlationId = events.get(0).getEventId().split(":")[0];
+    assertThat(events).extracting(AuditEvent::getEventId).containsExactly(
+        correlationId + ":0", correlationId + ":1", correlationId + ":2:last");
+    assertThat(events).extracting(event -> event.getEntities().size()).containsExactly(2, 2, 1);
+  }
+
+  @Test
+  void shouldExtractLargeCollectionInParallelLikeSequentially() throws Exception {
+    //given
+    var properties = new AuditProperties();
+    properties.getChunk().setMaxEntities(100);
+    properties.getParallel().setThreshold(10);
+    properties.getParallel().setParallelism(4);
+    properties.getParallel().setTaskSize(16);
+    auditService.setProperties(properties);
+    var auditables = new ArrayList<TestEntity>();
+    IntStream.range(0, 1_000).forEach(i -> {
+      auditables.add(TestEntity.builder().id(String.valueOf(i % 900)).name("name-" + i).build());
+      if (i % 97 == 0) {
+        auditables.add(null);
+      }
+    });
+    auditService.sendAuditEvent(auditables, UPDATED);
+    var extractionPool = new ExtractionPool(properties.getParallel());
+    auditService.setExtractionPool(extractionPool);
+    //when
+    try {
+      auditService.sendAuditEvent(auditables, UPDATED);
+    } finally {
+      extractionPool.destroy();
+    }
+    //then
+    verify(eventService, times(20)).publish(eventCaptor.capture());
+    var events = eventCaptor.getAllValues();
+    var sequential = events.subList(0, 10);
+    var parallel = events.subList(10, 20);
+    assertThat(parallel).extracting(AuditEvent::getEntities)
+        .containsExactlyElementsOf(sequential.stream().map(AuditEvent::getEntities).toList());
+    assertThat(parallel).extracting(event -> event.getEventId().split(":", 2)[1])
+        .containsExactlyElementsOf(sequential.stream()
+            .map(event -> event.getEventId().split(":", 2)[1]).toList());
+  }
+
+  @Test
+  void shouldExtractLargeEntitiesInParallelLikeSequentially() throws Exception {
+    //given
+    var properties = new AuditProperties();
+    properties.getChunk().setMaxSize(DataSize.ofBytes(1_000));
+    properties.getParallel().setThreshold(10);
+    properties.getParallel().setTaskSize(8);
+    auditService.setProperties(properties);
+    var auditables = IntStream.range(0, 100)
+        .mapToObj(i -> TestEntity.builder().id(String.valueOf(i)).name("n".repeat(500)).build())
+        .toList();
+    auditService.sendAuditEvent(auditables, UPDATED);
+    var extractionPool = new ExtractionPool(properties.getParallel());
+    auditService.setExtractionPool(extractionPool);
+    //when
+    try {
+      auditService.sendAuditEvent(auditables, UPDATED);
+    } finally {
+      extractionPool.destroy();
+    }
+    //then
+    verify(eventService, times(100)).publish(eventCaptor.capture());
+    var events = eventCaptor.getAllValues();
+    assertThat(events.subList(50, 100)).extracting(AuditEvent::getEntities)
+        .containsExactlyElementsOf(events.subList(0, 50).stream()
+            .map(AuditEvent::getEntities).toList());
+    assertThat(events).allSatisfy(event -> assertThat(event.getEntities()).hasSize(2));
+  }
+
+  @Test
+  void shouldFillChunksWithDistinctEntities() {
+    //given
+    var properties = new AuditProperties();
+    properties.getChunk().setMaxEntities(2);
+    auditService.setProperties(properties);
+    var auditables = List.of(
+        TestEntity.builder().id("1").build(),
+        TestEntity.builder().id("1").build(),
+        TestEntity.builder().id("2").build(),
+        TestEntity.builder().id("3").build());
+    //when
+    auditService.sendAuditEvent(auditables, UPDATED);
+    //then
+    verify(eventService, times(2)).publish(eventCaptor.capture());
+    assertThat(eventCaptor.getAllValues()).extracting(event -> event.getEntities().size())
+        .containsExactly(2, 1);
+  }
+
+  @Test
+  void shouldKeepOneEntityPerNumericIdAndName() {
+    //given
+    var auditables = List.of(
+        NumericIdTestEntity.builder().id(1).name("first").build(),
+        NumericIdTestEntity.builder().id(2).name("second").build(),
+        NumericIdTestEntity.builder().id(1).name("renamed").build(),
+        NumericIdTestEntity.builder().id(2).name("second").build());
+    //when
+    auditService.sendAuditEvent(auditables, UPDATED);
+    //then
+    verify(eventService).publish(eventCaptor.capture());
+    assertThat(eventCaptor.getValue().getEntities()).containsExactlyInAnyOrder(
+        AuditEvent.Entity.builder().id("1").name("first").build(),
+        AuditEvent.Entity.builder().id("2").name("second").build(),
+        AuditEvent.Entity.builder().id("1").name("renamed").build());
+  }
+
+  @Test
+  void shouldSendChunksOfStreamWhileConsumed() {
+    //given
+    var properties = new AuditProperties();
+    properties.getChunk().setMaxEntities(2);
+    auditService.setProperties(properties);
+    var stream = auditService.auditStream(IntStream.range(0, 5)
+        .mapToObj(i -> TestEntity.builder().id(String.valueOf(i)).build()), UPDATED);
+    var iterator = stream.iterator();
+    //when
+    iterator.next();
+    iterator.next();
+    iterator.next();
+    verify(eventService, times(1)).publish(eventCaptor.capture());
+    iterator.forEachRemaining(entity -> {
+    });
+    //then
+    verify(eventService, times(3)).publish(eventCaptor.capture());
+    var events = eventCaptor.getAllValues();
+    assertThat(events.get(events.size() - 1).getEventId()).endsWith(":2:last");
+    assertThat(events).extracting(event -> event.getEntities().size())
+        .containsExactly(2, 2, 2, 1);
+  }
+
+  @Test
+  void shouldSendConsumedEntitiesOfStreamOnClose() {
+    //given
+    var source = IntStream.range(0, 5)
+        .mapToObj(i -> TestEntity.builder().id(String.valueOf(i)).build());
+    //when
+    try (var stream = auditService.auditStream(source, UPDATED)) {
+      stream.limit(2).forEach(entity -> {
+      });
+    }
+    //then
+    verify(eventService).publish(eventCaptor.capture());
+    assertThat(eventCaptor.getValue().getEntities()).hasSize(2);
+  }
+
+  @Test
+  void shouldSendEntitiesOfIteratorWhenExhausted() {
+    //given
+    var iterator = auditService.auditIterator(List.of(auditable, auditable).iterator(), UPDATED);
+    //when
+    iterator.next();
+    iterator.next();
+    verifyNoInteractions(eventService);
+    iterator.hasNext();
+    //then
+    verify(eventService).publish(eventCaptor.capture());
+  }
+
+  @Test
+  void shouldAuditOnlyFirstIterationOfIterable() {
+    //given
+    var iterable = auditService.auditIterable(List.of(auditable, auditable), UPDATED);
+    //when
+    iterable.forEach(entity -> { });
+    iterable.forEach(entity -> { });
+    //then
+    verify(eventService).publish(eventCaptor.capture());
+  }
+
+  @Test
+  void shouldAllocateLittlePerEntity() {
+    //given
+    var threads = ManagementFactory.getThreadMXBean();
+    assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+    var allocations = (com.sun.management.ThreadMXBean) threads;
+    var threadId = Thread.currentThread().getId();
+    auditService.setPublisher(event -> {
+    });
+    var auditables = IntStream.range(0, 1_000)
+        .mapToObj(i -> TestEntity.builder().id(String.valueOf(i)).name("name-" + i).build())
+        .toList();
+    IntStream.range(0, 200).forEach(i -> auditService.sendAuditEvent(auditables, UPDATED));
+    //when
+    var perEntity = Long.MAX_VALUE;
+    for (int round = 0; round < 5; round++) {
+      var before = allocations.getThreadAllocatedBytes(threadId);
+      IntStream.range(0, 20).forEach(i -> auditService.sendAuditEvent(auditables, UPDATED));
+      perEntity = Math.min(perEntity,
+          (allocations.getThreadAllocatedBytes(threadId) - before) / 20_000);
+    }
+    //then
+    assertThat(perEntity).isLessThan(ALLOCATED_BYTES_PER_ENTITY);
+    verifyNoInteractions(eventService);
+  }
+
+  @Test
+  void shouldSendSingleEventWhenCollectionFitsIntoChunk() {
+    //given
+    var auditables = List.of(TestEntity.builder().id("1").build(),
+        TestEntity.builder().id("2").build());
+    //when
+    auditService.sendAuditEvent(auditables, UPDATED);
+    //then
+    verify(eventService).publish(eventCaptor.capture());
+    assertThat(eventCaptor.getValue().getEntities()).hasSize(2);
+    assertThat(eventCaptor.getValue().getEventId()).isNull();
+  }
+
+  @Test
+  void shouldCheckAuditableByFirstElement() {
+    //then
+    assertTrue(auditService.isAuditable(auditable));
+    assertTrue(auditService.isAuditable(Set.of(auditable)));
+    assertThat(auditService.isAuditable(List.of())).isFalse();
+    assertThat(auditService.isAuditable(List.of(nonAuditable, auditable))).isFalse();
+    assertThat(auditService.isAuditable(null)).isFalse();
+  }
+
+  @Test
+  void shouldPublishMergedEventsAfterCommit() {
+    //given
+    auditService.setProperties(publishAfterCommit());
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      //when
+      auditService.sendAuditEvent(TestEntity.builder().id("1").name("old").build(), UPDATED);
+      auditService.sendAuditEvent(TestEntity.builder().id("1").name("new").build(), UPDATED);
+      auditService.sendAuditEvent(TestEntity.builder().id("2").build(), UPDATED);
+      verifyNoInteractions(eventService);
+      TransactionSynchronizationUtils.triggerAfterCommit();
+      TransactionSynchronizationUtils.triggerAfterCompletion(
+          TransactionSynchronization.STATUS_COMMITTED);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    //then
+    verify(eventService).publish(eventCaptor.capture());
+    assertThat(eventCaptor.getValue().getEntities()).containsExactlyInAnyOrder(
+        AuditEvent.Entity.builder().id("1").name("old").build(),
+        AuditEvent.Entity.builder().id("1").name("new").build(),
+        AuditEvent.Entity.builder().id("2").build());
+  }
+
+  @Test
+  void shouldChunkMergedEventsAfterCommit() {
+    //given
+    var properties = publishAfterCommit();
+    properties.getChunk().setMaxEntities(2);
+    auditService.setProperties(properties);
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      //when
+      IntStream.range(0, 5).forEach(i -> auditService.sendAuditEvent(
+          TestEntity.builder().id(String.valueOf(i)).build(), UPDATED));
+      TransactionSynchronizationUtils.triggerAfterCommit();
+      TransactionSynchronizationUtils.triggerAfterCompletion(
+          TransactionSynchronization.STATUS_COMMITTED);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    //then
+    verify(eventService, times(3)).publish(eventCaptor.capture());
+    var events = eventCaptor.getAllValues();
+    var correlationId = events.get(0).getEventId().split(":")[0];
+    assertThat(events).extracting(AuditEvent::getEventId).containsExactly(
+        correlationId + ":0", correlationId + ":1", correlationId + ":2:last");
+    assertThat(events).extracting(event -> event.getEntities().size()).containsExactly(2, 2, 1);
+  }
+
+  @Test
+  void shouldMergeChangeEventsAfterCommit() {
+    //given
+    auditService.setProperties(publishAfterCommit());
+    var entity = TestEntity.builder().id("1").build();
+    var first = new IdentityHashMap<Object, List<String>>();
+    first.put(entity, List.of("name"));
+    var second = new IdentityHashMap<Object, List<String>>();
+    second.put(entity, List.of("subscriptionId", "name"));
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      //when
+      auditService.sendChangeEvent(entity, UPDATED, first);
+      auditService.sendChangeEvent(entity, UPDATED, second);
+      TransactionSynchronizationUtils.triggerAfterCommit();
+      TransactionSynchronizationUtils.triggerAfterCompletion(
+          TransactionSynchronization.STATUS_COMMITTED);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    //then
+    verify(eventService).publish(eventCaptor.capture());
+    assertThat(eventCaptor.getValue().getEntities()).hasSize(1);
+    assertThat(eventCaptor.getValue().getDescription()).isEqualTo("1: name, subscriptionId");
+  }
+
+  @Test
+  void shouldDiscardEventsOnRollback() {
+    //given
+    auditService.setProperties(publishAfterCommit());
+    TransactionSynchronizationManager.initSynchronization();
+    try {
+      //when
+      auditService.sendAuditEvent(auditable, UPDATED);
+      TransactionSynchronizationUtils.triggerAfterCompletion(
+          TransactionSynchronization.STATUS_ROLLED_BACK);
+    } finally {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+    //then
+    verifyNoInteractions(eventService);
+  }
+
+  @Test
+  void shouldPublishImmediatelyOutsideTransaction() {
+    //given
+    auditService.setProperties(publishAfterCommit());
+    //when
+    auditService.sendAuditEvent(auditable, UPDATED);
+    //then
+    verify(eventService).publish(eventCaptor.capture());
+  }
+
+  @Test
+  void shouldDescribeChangedFields() {
+    //given
+    var first = TestEntity.builder().id("1").build();
+    var second = TestEntity.builder().id("2").build();
+    var third = TestEntity.builder().id("3").build();
+    var changes = new IdentityHashMap<Object, List<String>>();
+    changes.put(first, List.of("name", "subscriptionId"));
+    changes.put(second, List.of());
+    changes.put(third, List.of("name"));
+    //when
+    auditService.sendChangeEvent(List.of(first, second, third), UPDATED, changes);
+    //then
+    verify(eventService).publish(eventCaptor.capture());
+    assertThat(eventCaptor.getValue().getDescription())
+        .isEqualTo("1: name, subscriptionId; 3: name");
+  }
+
+  @Test
+  void shouldSuppressEventRejectedBySampling() {
+    //given
+    var sampling = new AuditProperties.Sampling();
+    sampling.setType(AuditProperties.SamplingType.FIRST_N);
+    var rule = new AuditProperties.Rule();
+    rule.setEntityType(TestEntity.TEST_ENTITY_TYPE);
+    rule.setSampling(sampling);
+    var properties = new AuditProperties.Policies();
+    properties.setRules(List.of(rule));
+    auditService.setPolicies(new AuditPolicies(properties));
+    //when
+    auditService.sendAuditEvent(auditable, UPDATED);
+    auditService.sendAuditEvent(auditable, UPDATED);
+    //then
+    verify(eventService, times(1)).publish(eventCaptor.capture());
+  }
+
+  @Test
+  void shouldApplyAuditPolicyOfEntityTypeAndAction() {
+    //given
+    var properties = new AuditProperties.Policies();
+    var disabled = new AuditProperties.Rule();
+    disabled.setEntityType(TestEntity.TEST_ENTITY_TYPE);
+    disabled.setAction("deleted");
+    disabled.setEnabled(false);
+    var renamed = new AuditProperties.Rule();
+    renamed.setEntityType(TestEntity.TEST_ENTITY_TYPE);
+    renamed.setAction(UPDATED);
+    renamed.setActionName("modified");
+    properties.setRules(List.of(disabled, renamed));
+    auditService.setPolicies(new AuditPolicies(properties));
+    //when
+    auditService.sendAuditEvent(auditable, "deleted");
+    auditService.sendAuditEvent(auditable, UPDATED);
+    //then
+    verify(eventService, times(1)).publish(eventCaptor.capture());
+    assertThat(eventCaptor.getValue().getAction()).isEqualTo("modified");
+  }
+
+  @Test
+  void shouldPreferPersistableOverUnsetLastModifiedDate() {
+    //given
+    var existing = PersistableTestEntity.builder().id("1").isNew(false).build();
+    var created = PersistableTestEntity.builder().isNew(true).build();
+    //when
+    //then
+    assertThat(auditService.isNew(existing)).isFalse();
+    assertThat(auditService.isNew(created)).isTrue();
+    assertThat(auditService.isNew(auditable)).isTrue();
+  }
+
+  @Test
+  void shouldAskEntityInformationOfDomainTypeForSubclasses() {
+    //given
+    var information = mock(EntityInformation.class);
+    var subclass = new TestEntitySubclass("1");
+    subclass.setLastModifiedDate(new Date());
+    when(information.isNew(subclass)).thenReturn(true);
+    auditService.setEntityInformation(Map.of(TestEntity.class, information));
+    //when
+    var isNew = auditService.isNew(subclass);
+    //then
+    assertThat(isNew).isTrue();
+  }
+
+  @Test
+  void shouldFallBackToLastModifiedDateWhenEntityInformationReportsExisting() {
+    //given
+    auditService.setEntityInformation(Map.of(TestEntity.class, entityInformation()));
+    var assigned = TestEntity.builder().id("1").build();
+    var saved = TestEntity.builder().id("1").lastModifiedDate(new Date()).build();
+    //when
+    //then
+    assertThat(auditService.isNew(assigned)).isTrue();
+    assertThat(auditService.isNew(saved)).isFalse();
+  }
+
+  private static EntityInformation<TestEntity, String> entityInformation() {
+    return new AbstractEntityInformation<>(TestEntity.class) {
+      @Override
+      public String getId(TestEntity entity) {
+        return entity.getId();
+      }
+
+      @Override
+      public Class<String> getIdType() {
+        return String.class;
+      }
+    };
+  }
+
+  private AuditProperties publishAfterCommit() {
+    var properties = new AuditProperties();
+    properties.setPublishAfterCommit(true);
+    return properties;
+  }
 }
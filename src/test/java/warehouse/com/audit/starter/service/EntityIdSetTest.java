@@ -0,0 +1,63 @@
+package warehouse.com.audit.starter.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import warehouse.com.eventstarter.model.AuditEvent;
+
+class EntityIdSetTest {
+
+  @Test
+  void shouldKeepEntitiesOfEachIdAndNameWhileGrowing() {
+    //given
+    var set = new EntityIdSet(2);
+    //when
+    IntStream.range(0, 150).forEach(i -> set.add(i % 50, entity(String.valueOf(i % 50),
+        "n" + i % 100)));
+    //then
+    assertThat(set).hasSize(100);
+    assertThat(set).contains(entity("49", "n49"), entity("49", "n99"))
+        .doesNotContain(entity("49", "n0"));
+  }
+
+  @Test
+  void shouldRemoveEntities() {
+    //given
+    var set = new EntityIdSet(4);
+    IntStream.range(0, 100).forEach(i -> set.add(entity(String.valueOf(i), "n" + i)));
+    set.add(entity("x", "other"));
+    var expected = new HashSet<>(set);
+    //when
+    set.remove(entity("0", "n0"));
+    set.removeIf(entity -> entity.getName().endsWith("7") || entity.getId().equals("x"));
+    expected.remove(entity("0", "n0"));
+    expected.removeIf(entity -> entity.getName().endsWith("7") || entity.getId().equals("x"));
+    //then
+    assertThat(set).hasSize(89).isEqualTo(expected);
+    assertThat(set.remove(entity("0", "n0"))).isFalse();
+    assertThat(set).allMatch(set::contains);
+    assertThat(set.add(entity("7", "n7"))).isTrue();
+    assertThat(set).contains(entity("7", "n7"));
+  }
+
+  @Test
+  void shouldKeepEntitiesWithoutNumericIdBySetEquality() {
+    //given
+    var set = new EntityIdSet(4);
+    //when
+    set.add(entity("7", "seven"));
+    set.add(entity("07", "zero seven"));
+    set.add(entity(null, "none"));
+    set.add(entity(null, "none"));
+    //then
+    assertThat(set).hasSize(3);
+    assertThat(set).isEqualTo(new HashSet<>(set));
+    assertThat(new HashSet<>(set)).isEqualTo(set);
+  }
+
+  private AuditEvent.Entity entity(String id, String name) {
+    return AuditEvent.Entity.builder().id(id).name(name).build();
+  }
+}
@@ -1,19 +1,33 @@
 package warehouse.com.audit.starter.service;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 import warehouse.com.audit.starter.exception.AuditInitializationException;
+import warehouse.com.audit.starter.metadata.AuditableEntityIndex;
 
 @ExtendWith(MockitoExtension.class)
 class ValidationProcessorTest {
 
   private final ValidationProcessor validationProcessor = new ValidationProcessor();
 
+  @TempDir
+  Path directory;
+
   @ParameterizedTest
   @ValueSource(strings = {
       "warehouse.com.audit.starter.entity.invalid.id",
@@ -25,4 +39,65 @@ class ValidationProcessorTest {
     assertThrows(AuditInitializationException.class,
         () -> validationProcessor.validateRequiredAnnotations());
   }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "warehouse.com.audit.starter.entity.invalid.id",
+      "warehouse.com.audit.starter.entity.invalid.name",
+      "warehouse.com.audit.starter.entity.invalid.createddate",
+      "warehouse.com.audit.starter.entity.invalid.type"})
+  public void shouldThrowExceptionWhenScanningClasspath(String basePackage) {
+    ReflectionTestUtils.setField(validationProcessor, "basePackage", basePackage);
+    ReflectionTestUtils.setField(validationProcessor, "useIndex", false);
+    assertThrows(AuditInitializationException.class,
+        () -> validationProcessor.validateRequiredAnnotations());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "warehouse.com.audit.starter.entity.invalid.id",
+      "warehouse.com.audit.starter.entity.invalid.name",
+      "warehouse.com.audit.starter.entity.invalid.createddate",
+      "warehouse.com.audit.starter.entity.invalid.type"})
+  public void shouldThrowExceptionForEntitiesMissingFromIndex(String basePackage)
+      throws IOException {
+    ReflectionTestUtils.setField(validationProcessor, "basePackage", basePackage);
+    validationProcessor.setBeanClassLoader(classLoaderWithForeignIndex());
+    assertThrows(AuditInitializationException.class,
+        () -> validationProcessor.validateRequiredAnnotations());
+  }
+
+  @Test
+  public void shouldAcceptValidEntitiesMissingFromIndex() throws IOException {
+    ReflectionTestUtils.setField(validationProcessor, "basePackage",
+        "warehouse.com.audit.starter.entity.valid");
+    validationProcessor.setBeanClassLoader(classLoaderWithForeignIndex());
+    assertDoesNotThrow(() -> validationProcessor.validateRequiredAnnotations());
+  }
+
+  @Test
+  public void shouldAcceptValidEntities() {
+    ReflectionTestUtils.setField(validationProcessor, "basePackage",
+        "warehouse.com.audit.starter.entity.valid");
+    assertDoesNotThrow(() -> validationProcessor.validateRequiredAnnotations());
+  }
+
+  /**
+   * Class loader that sees only an index of another classpath root, so the test classes are not
+   * indexed.
+   */
+  private ClassLoader classLoaderWithForeignIndex() throws IOException {
+    var index = directory.resolve(AuditableEntityIndex.LOCATION);
+    Files.createDirectories(index.getParent());
+    Files.writeString(index, "warehouse.com.other.OtherEntity auditableId=field:id\n");
+    var url = index.toUri().toURL();
+    return new ClassLoader(getClass().getClassLoader()) {
+      @Override
+      public Enumeration<URL> getResources(String name) throws IOException {
+        return AuditableEntityIndex.LOCATION.equals(name)
+            ? Collections.enumeration(List.of(url))
+            : super.getResources(name);
+      }
+    };
+  }
 }
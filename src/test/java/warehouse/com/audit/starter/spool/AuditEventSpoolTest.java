@@ -0,0 +1,132 @@
+package warehouse.com.audit.starter.spool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AuditEventSpoolTest {
+
+  private static final int SEGMENT_SIZE = 64;
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void shouldReadAppendedRecordsInOrder() throws IOException {
+    //given
+    var spool = new AuditEventSpool(directory, SEGMENT_SIZE, false);
+    //when
+    spool.append(bytes("first"));
+    spool.append(bytes("second"));
+    //then
+    assertThat(drain(spool)).containsExactly("first", "second");
+    assertThat(spool.getPendingCount()).isZero();
+  }
+
+  @Test
+  void shouldReturnSameRecordUntilCommitted() throws IOException {
+    //given
+    var spool = new AuditEventSpool(directory, SEGMENT_SIZE, false);
+    spool.append(bytes("first"));
+    //when
+    var first = spool.peek();
+    var second = spool.peek();
+    //then
+    assertThat(second).isEqualTo(first);
+    assertThat(spool.getPendingCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRollSegmentsAndDeleteReadOnes() throws IOException {
+    //given
+    var spool = new AuditEventSpool(directory, SEGMENT_SIZE, false);
+    var records = new ArrayList<String>();
+    for (int i = 0; i < 20; i++) {
+      records.add("record-" + i);
+      spool.append(bytes("record-" + i));
+    }
+    //when
+    var read = drain(spool);
+    //then
+    assertThat(read).isEqualTo(records);
+    assertThat(segments()).hasSize(1);
+  }
+
+  @Test
+  void shouldLockDirectoryWhileOpen() throws IOException {
+    //given
+    var spool = new AuditEventSpool(directory, SEGMENT_SIZE, false);
+    //then
+    assertThatThrownBy(() -> new AuditEventSpool(directory, SEGMENT_SIZE, false))
+        .isInstanceOf(IllegalStateException.class);
+    spool.close();
+    new AuditEventSpool(directory, SEGMENT_SIZE, false).close();
+  }
+
+  @Test
+  void shouldRecoverRecordsThatWereNotCommitted() throws IOException {
+    //given
+    var spool = new AuditEventSpool(directory, SEGMENT_SIZE, false);
+    for (int i = 0; i < 10; i++) {
+      spool.append(bytes("record-" + i));
+    }
+    for (int i = 0; i < 4; i++) {
+      spool.peek();
+      spool.commit();
+    }
+    spool.close();
+    //when
+    var recovered = new AuditEventSpool(directory, SEGMENT_SIZE, false);
+    recovered.append(bytes("record-10"));
+    //then
+    assertThat(recovered.getPendingCount()).isEqualTo(7);
+    assertThat(drain(recovered)).containsExactly("record-4", "record-5", "record-6", "record-7",
+        "record-8", "record-9", "record-10");
+  }
+
+  @Test
+  void shouldIgnoreTornRecordOnRecovery() throws IOException {
+    //given
+    var spool = new AuditEventSpool(directory, SEGMENT_SIZE, false);
+    spool.append(bytes("complete"));
+    spool.append(bytes("torn"));
+    spool.close();
+    try (var channel = FileChannel.open(segments().get(0), StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[]{'x'}), 8 + 8 + 8 + 1);
+    }
+    //when
+    var recovered = new AuditEventSpool(directory, SEGMENT_SIZE, false);
+    //then
+    assertThat(drain(recovered)).containsExactly("complete");
+  }
+
+  private List<String> drain(AuditEventSpool spool) {
+    var records = new ArrayList<String>();
+    for (var record = spool.peek(); record != null; record = spool.peek()) {
+      records.add(new String(record, StandardCharsets.UTF_8));
+      spool.commit();
+    }
+    return records;
+  }
+
+  private List<Path> segments() throws IOException {
+    try (var files = Files.list(directory)) {
+      return files.filter(file -> file.toString().endsWith(".spool")).toList();
+    }
+  }
+
+  private byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+}